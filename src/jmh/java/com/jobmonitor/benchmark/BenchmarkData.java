@@ -0,0 +1,125 @@
+package com.jobmonitor.benchmark;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.jobmonitor.model.Job;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+// Synthetic jobs, descriptions and API responses shaped like what the providers see.
+// A fixed seed keeps runs comparable.
+public class BenchmarkData {
+
+    private static final String[] TITLE_WORDS = {
+            "Software", "Engineer", "Junior", "Senior", "Embedded", "Developer", "QA", "Automation",
+            "Student", "Manager", "Backend", "Frontend", "Data", "Team", "Lead", "Graduate", "Cloud",
+            "Security", "Platform", "Intern", "Principal", "Firmware", "Validation", "Technical"
+    };
+
+    private static final String[] TEXT_WORDS = {
+            "we", "are", "looking", "for", "a", "motivated", "team", "player", "with", "experience",
+            "in", "building", "scalable", "systems", "and", "working", "closely", "customers", "product",
+            "design", "linux", "python", "java", "c++", "networking", "hardware", "verification", "our",
+            "mission", "is", "to", "deliver", "high", "quality", "solutions", "across", "global", "sites",
+            "strong", "communication", "skills", "degree", "computer", "science", "or", "equivalent"
+    };
+
+    private static final String[] HOSTS = {
+            "https://nvidia.wd5.myworkdayjobs.com/en-US/NVIDIAExternalCareerSite/job/Israel-Yokneam/",
+            "https://redhat.wd5.myworkdayjobs.com/jobs/job/Raanana/",
+            "https://careers.thalesgroup.com/global/en/job/",
+            "https://jobs.apple.com/en-il/details/"
+    };
+
+    private final Random random;
+
+    public BenchmarkData(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public String title() {
+        int words = 2 + random.nextInt(4);
+        StringBuilder title = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                title.append(' ');
+            }
+            title.append(pick(TITLE_WORDS));
+        }
+        return title.toString();
+    }
+
+    public String link(int id) {
+        return pick(HOSTS) + "Job-Posting-" + id + "_JR" + (1_000_000 + id) + "?source=Eightfold&tracking=" +
+                Integer.toHexString(random.nextInt());
+    }
+
+    // Roughly the given number of characters of prose with the odd requirement line mixed in
+    public String description(int length) {
+        StringBuilder text = new StringBuilder(length + 64);
+        text.append(title()).append('\n');
+        while (text.length() < length) {
+            if (random.nextInt(40) == 0) {
+                text.append(random.nextBoolean() ? "Junior level, 1+ years of experience. " : "Developer role. ");
+            }
+            text.append(pick(TEXT_WORDS)).append(random.nextInt(12) == 0 ? ".\n" : " ");
+        }
+        return text.toString();
+    }
+
+    public List<Job> jobs(int count, int firstId) {
+        List<Job> jobs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            jobs.add(new Job(link(firstId + i), title(), description(160)));
+        }
+        return jobs;
+    }
+
+    public Set<String> links(int count) {
+        Set<String> links = new HashSet<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            links.add(link(i));
+        }
+        return links;
+    }
+
+    // A Custom Search response as requested with the fields selector in GoogleSearchService
+    public String googleResponse(int items) {
+        JsonArray array = new JsonArray();
+        for (int i = 0; i < items; i++) {
+            JsonObject item = new JsonObject();
+            item.addProperty("title", title() + " - Careers");
+            item.addProperty("link", link(random.nextInt(1_000_000)));
+            item.addProperty("snippet", description(150));
+            array.add(item);
+        }
+
+        JsonObject request = new JsonObject();
+        request.addProperty("searchTerms", "(\"engineer\" OR \"developer\") (\"junior\" OR \"student\") (\"Israel\")");
+        request.addProperty("totalResults", "87");
+        JsonArray requests = new JsonArray();
+        requests.add(request);
+
+        JsonObject nextPage = new JsonObject();
+        nextPage.addProperty("startIndex", 11);
+        JsonArray nextPages = new JsonArray();
+        nextPages.add(nextPage);
+
+        JsonObject queries = new JsonObject();
+        queries.add("request", requests);
+        queries.add("nextPage", nextPages);
+
+        JsonObject response = new JsonObject();
+        response.add("queries", queries);
+        response.add("items", array);
+        return response.toString();
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,63 @@
+package com.jobmonitor.service;
+
+import com.jobmonitor.benchmark.BenchmarkData;
+import com.jobmonitor.config.ConfigLoader;
+import com.jobmonitor.model.Job;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class FilterNewJobsBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int storedLinkCount;
+
+    private JobFilter jobFilter;
+    @Param({"false", "true"})
+    private boolean exact;
+
+    private Set<String> storedLinks;
+    private LinkIndex seenLinks;
+    private List<Job> fetched;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData data = new BenchmarkData(42);
+        jobFilter = new JobFilter(ConfigLoader.loadConfig());
+        storedLinks = data.links(storedLinkCount);
+        seenLinks = new LinkIndex(exact, storedLinkCount);
+        seenLinks.addAll(storedLinks);
+
+        // A typical cycle: mostly known links, a few new ones. Copies, since fetched links are fresh strings
+        fetched = new ArrayList<>();
+        List<String> known = new ArrayList<>(storedLinks).subList(0, 180);
+        for (String link : known) {
+            fetched.add(new Job(new String(link), data.title(), ""));
+        }
+        fetched.addAll(data.jobs(20, storedLinkCount + 1));
+    }
+
+    @Benchmark
+    public List<Job> filterNewJobs() {
+        return jobFilter.filterNewJobs(fetched, seenLinks);
+    }
+}
@@ -0,0 +1,41 @@
+package com.jobmonitor.service;
+
+import com.jobmonitor.benchmark.BenchmarkData;
+import com.jobmonitor.model.Job;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GoogleParseBenchmark {
+
+    private String response;
+
+    @Setup
+    public void setUp() {
+        response = new BenchmarkData(42).googleResponse(10);
+    }
+
+    // One full result page, from response body to jobs
+    @Benchmark
+    public List<Job> parseJobs() throws IOException {
+        return GoogleResultPage.parse(new StringReader(response), title -> true).jobs;
+    }
+}
@@ -0,0 +1,61 @@
+package com.jobmonitor.service;
+
+import com.jobmonitor.benchmark.BenchmarkData;
+import com.jobmonitor.config.ConfigLoader;
+import com.jobmonitor.model.Job;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JobFilterBenchmark {
+
+    private JobFilter jobFilter;
+    private List<Job> jobs;
+    private String[] descriptions;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData data = new BenchmarkData(42);
+        jobFilter = new JobFilter(ConfigLoader.loadConfig());
+        jobs = data.jobs(1_000, 0);
+
+        descriptions = new String[64];
+        for (int i = 0; i < descriptions.length; i++) {
+            descriptions[i] = data.description(4_096);
+        }
+    }
+
+    // 1000 titles per call
+    @Benchmark
+    public List<Job> filterByTitle() {
+        return jobFilter.filterByTitle(jobs);
+    }
+
+    // 64 descriptions of about 4KB per call
+    @Benchmark
+    public int validateDescription() {
+        int valid = 0;
+        for (String description : descriptions) {
+            if (jobFilter.validateDescriptionNoLogs(description)) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+}
@@ -0,0 +1,70 @@
+package com.jobmonitor.storage;
+
+import com.jobmonitor.benchmark.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class FileJobStorageBenchmark {
+
+    @Param({"10000", "100000"})
+    private int storedLinks;
+
+    private Path loadFile;
+    private Path appendFile;
+    private FileJobStorage loadStorage;
+    private FileJobStorage appendStorage;
+    private Set<String> batch;
+
+    @Setup
+    public void setUp() throws IOException {
+        BenchmarkData data = new BenchmarkData(42);
+
+        loadFile = Files.createTempFile("jobs-load", ".txt");
+        Files.write(loadFile, data.links(storedLinks));
+        loadStorage = new FileJobStorage(loadFile.toString());
+
+        appendFile = Files.createTempFile("jobs-append", ".txt");
+        appendStorage = new FileJobStorage(appendFile.toString());
+        batch = new BenchmarkData(7).links(20);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(loadFile);
+        Files.deleteIfExists(appendFile);
+    }
+
+    // Startup: read every stored link
+    @Benchmark
+    public Set<String> load() {
+        return loadStorage.getStoredJobLinks();
+    }
+
+    // One cycle worth of new links
+    @Benchmark
+    public void append() {
+        appendStorage.saveJobLinks(batch);
+    }
+}
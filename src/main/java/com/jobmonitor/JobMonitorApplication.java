@@ -2,19 +2,37 @@ package com.jobmonitor;
 
 import com.jobmonitor.config.AppConfig;
 import com.jobmonitor.config.ConfigLoader;
+import com.jobmonitor.http.HttpCache;
+import com.jobmonitor.http.HttpClients;
+import com.jobmonitor.metrics.FlightRecording;
+import com.jobmonitor.metrics.MetricsServer;
 import com.jobmonitor.model.Job;
 import com.jobmonitor.notifier.ConsoleNotifier;
 import com.jobmonitor.notifier.Notifier;
+import com.jobmonitor.notifier.QueuedNotifier;
 import com.jobmonitor.notifier.TelegramNotifier;
+import com.jobmonitor.selenium.BrowserType;
+import com.jobmonitor.selenium.WebDriverPool;
 import com.jobmonitor.service.GoogleSearchService;
 import com.jobmonitor.service.JobFilter;
 import com.jobmonitor.service.JobMonitorService;
 import com.jobmonitor.service.JobsProvider;
+import com.jobmonitor.service.LinkCanonicalizer;
+import com.jobmonitor.service.ResilientJobsProvider;
+import com.jobmonitor.service.WorkdayJobsProvider;
 import com.jobmonitor.service.scrapers.*;
+import com.jobmonitor.storage.DescriptionCache;
+import com.jobmonitor.storage.DiskDescriptionCache;
 import com.jobmonitor.storage.FileJobStorage;
+import com.jobmonitor.storage.JobRecordStorage;
 import com.jobmonitor.storage.JobStorage;
+import com.jobmonitor.storage.LogJobStorage;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 
 
@@ -31,6 +49,9 @@ public class JobMonitorApplication {
         if (System.getenv("DEV_ENV") != null) {
             scraperTest();
         }
+        else if (System.getenv("REVALIDATE_DESCRIPTIONS") != null) {
+            revalidateDescriptions();
+        }
         else {
             runJobScraper();
         }
@@ -41,27 +62,55 @@ public class JobMonitorApplication {
     private static void scraperTest() throws Exception {
         AppConfig config = ConfigLoader.loadConfig();
         JobFilter jobFilter = new JobFilter(config);
-        //JobsProvider scraper = new NvidiaScraper(jobFilter);
 
-        JobsProvider scraper = new AppleScraper(jobFilter);
+        try (WebDriverPool driverPool = createDriverPool(config)) {
+            //JobsProvider scraper = new NvidiaScraper(jobFilter, driverPool);
+            JobsProvider scraper = new AppleScraper(jobFilter, driverPool);
 
-        List<Job> jobs = scraper.fetchJobs();
+            List<Job> jobs = scraper.fetchJobs();
 
-        for (Job job:jobs){
-            System.out.println(job);
+            for (Job job:jobs){
+                System.out.println(job);
+            }
         }
     }
 
+    // Runs the current description filter over every cached description, no browser or network involved
+    private static void revalidateDescriptions() {
+        AppConfig config = ConfigLoader.loadConfig();
+        JobFilter jobFilter = new JobFilter(config);
+        DescriptionCache descriptionCache = createDescriptionCache(config);
+
+        long start = System.nanoTime();
+        int[] counts = new int[2];
+        descriptionCache.forEach((link, description) -> {
+            counts[0]++;
+            if (jobFilter.validateDescriptionNoLogs(description)) {
+                counts[1]++;
+                System.out.println("Valid: " + link);
+            }
+        });
+        descriptionCache.close();
+
+        System.out.println(counts[1] + " of " + counts[0] + " cached description(s) pass the current filter (" +
+                (System.nanoTime() - start) / 1_000_000 + " ms)");
+    }
+
     private static void runJobScraper() {
         AppConfig config = ConfigLoader.loadConfig();
         JobFilter jobFilter = new JobFilter(config);
 
 
-        JobStorage storage = new FileJobStorage(config.getJobsFile());
+        JobStorage storage = createStorage(config);
 
         List<Notifier> notifiers = createNotifiers(config);
 
-        List<JobsProvider> providers = createProviders(config, jobFilter);
+        WebDriverPool driverPool = createDriverPool(config);
+
+        DescriptionCache descriptionCache = createDescriptionCache(config);
+        HttpCache httpCache = createHttpCache(config);
+
+        List<JobsProvider> providers = createProviders(config, jobFilter, driverPool, descriptionCache, httpCache);
 
         JobMonitorService monitorService = new JobMonitorService(
                 config,
@@ -72,41 +121,158 @@ public class JobMonitorApplication {
         );
 
 
+        MetricsServer metricsServer = createMetricsServer(config);
+        if (config.isFlightRecordingEnabled()) {
+            FlightRecording.start(
+                    Paths.get(config.getStorageDirectory(), "jfr"),
+                    Duration.ofMinutes(config.getFlightRecordingMaxAgeMinutes()),
+                    config.getFlightRecordingMaxMb() * 1024L * 1024L,
+                    Duration.ofSeconds(config.getSlowRunSeconds())
+            );
+        }
+
         monitorService.start();
 
-        Runtime.getRuntime().addShutdownHook(new Thread(monitorService::stop));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (metricsServer != null) {
+                metricsServer.stop();
+            }
+            monitorService.stop();
+            FlightRecording.stop();
+            driverPool.close();
+            notifiers.forEach(Notifier::close);
+            storage.close();
+            descriptionCache.close();
+            httpCache.close();
+        }));
+    }
+
+    private static JobStorage createStorage(AppConfig config) {
+        switch (config.getStorageType()) {
+            case "text":
+                return new FileJobStorage(config.getJobsFile());
+            case "log":
+                return new LogJobStorage(
+                        config.getStorageDirectory(),
+                        config.getJobsFile(),
+                        config.getStorageCompactionKb() * 1024L,
+                        config.getStorageRetentionDays()
+                );
+            default:
+                return new JobRecordStorage(
+                        config.getStorageDirectory(),
+                        config.getJobsFile(),
+                        config.getStorageCompactionKb() * 1024L,
+                        config.getStorageRetentionDays(),
+                        LinkCanonicalizer::canonicalize
+                );
+        }
+    }
+
+    private static DescriptionCache createDescriptionCache(AppConfig config) {
+        if (!config.isDescriptionCacheEnabled()) {
+            return DescriptionCache.NONE;
+        }
+        return new DiskDescriptionCache(
+                config.getStorageDirectory(),
+                config.getDescriptionCacheMemoryEntries(),
+                config.getDescriptionCacheTtlDays(),
+                LinkCanonicalizer::canonicalize
+        );
+    }
+
+    private static HttpCache createHttpCache(AppConfig config) {
+        if (!config.isHttpCacheEnabled()) {
+            return HttpCache.disabled(HttpClients.shared());
+        }
+        return new HttpCache(
+                HttpClients.shared(),
+                Paths.get(config.getStorageDirectory(), "http-cache.bin"),
+                config.getHttpCacheMaxKb() * 1024L
+        );
+    }
+
+    // Null when metrics are off or the port is taken, monitoring runs either way
+    private static MetricsServer createMetricsServer(AppConfig config) {
+        if (config.getMetricsPort() <= 0) {
+            return null;
+        }
+        try {
+            MetricsServer server = new MetricsServer(config.getMetricsHost(), config.getMetricsPort());
+            server.start();
+            return server;
+        } catch (IOException e) {
+            System.err.println("Error starting metrics server: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static WebDriverPool createDriverPool(AppConfig config) {
+        return new WebDriverPool(
+                BrowserType.FIREFOX,
+                config.getWebDriverPoolSize(),
+                Duration.ofMinutes(config.getWebDriverMaxAgeMinutes())
+        );
     }
 
-    private static List<JobsProvider> createProviders(AppConfig config, JobFilter jobFilter) {
+    private static List<JobsProvider> createProviders(AppConfig config, JobFilter jobFilter, WebDriverPool driverPool,
+                                                      DescriptionCache descriptionCache, HttpCache httpCache) {
         List<JobsProvider> providers = new ArrayList<>();
 
 
         System.out.println("DEBUG: Building Google service provider");
-        JobsProvider searchService = new GoogleSearchService(config, jobFilter);
+        JobsProvider searchService = new GoogleSearchService(config, jobFilter, httpCache);
         providers.add(searchService);
 
         System.out.println("DEBUG: Imperva service provider");
-        JobsProvider impervaScraper = new ImpervaScraper(jobFilter);
+        JobsProvider impervaScraper = new ImpervaScraper(jobFilter, driverPool, config.getDescriptionParallelism(),
+                descriptionCache);
         providers.add(impervaScraper);
 
-        System.out.println("DEBUG: Nvidia service provider");
-        JobsProvider nvidiaScraper = new NvidiaScraper(jobFilter);
-        providers.add(nvidiaScraper);
+        if (config.isWorkdayApiEnabled()) {
+            System.out.println("DEBUG: Nvidia Workday provider");
+            providers.add(createWorkdayProvider(config, jobFilter, "nvidia", NvidiaScraper.CAREERS_URL, descriptionCache,
+                    httpCache));
+
+            System.out.println("DEBUG: Red Hat Workday provider");
+            providers.add(createWorkdayProvider(config, jobFilter, "redhat", RedHatScraper.CAREERS_URL, descriptionCache,
+                    httpCache));
+        }
+        else {
+            System.out.println("DEBUG: Nvidia service provider");
+            JobsProvider nvidiaScraper = new NvidiaScraper(jobFilter, driverPool, descriptionCache);
+            providers.add(nvidiaScraper);
 
 
-        System.out.println("DEBUG: Red Hat service provider");
-        JobsProvider redHatScraper = new RedHatScraper(jobFilter);
-        providers.add(redHatScraper);
+            System.out.println("DEBUG: Red Hat service provider");
+            JobsProvider redHatScraper = new RedHatScraper(jobFilter, driverPool, descriptionCache);
+            providers.add(redHatScraper);
+        }
 
         System.out.println("DEBUG: Apple service provider ");
-        JobsProvider appleScraper = new AppleScraper(jobFilter);
+        JobsProvider appleScraper = new AppleScraper(jobFilter, driverPool);
+        if (config.isAppleHttpEnabled()) {
+            appleScraper = new AppleHttpScraper(jobFilter, appleScraper, httpCache);
+        }
         providers.add(appleScraper);
 
-
-
+        providers.replaceAll(provider -> new ResilientJobsProvider(provider, config));
         return providers;
     }
 
+    private static JobsProvider createWorkdayProvider(AppConfig config, JobFilter jobFilter, String name, String careersUrl,
+                                                      DescriptionCache descriptionCache, HttpCache httpCache) {
+        return new WorkdayJobsProvider(
+                name,
+                careersUrl,
+                jobFilter,
+                config.getWorkdayMaxPostedDays(),
+                config.getWorkdayDescriptionFilter().contains(name),
+                descriptionCache,
+                httpCache
+        );
+    }
+
 
     private static void printConfiguration(AppConfig config) {
         System.out.println("=".repeat(80));
@@ -144,10 +310,16 @@ public class JobMonitorApplication {
         if (config.getTelegramBotToken() != null && !config.getTelegramBotToken().isEmpty()) {
             notifiers.add(new TelegramNotifier(
                     config.getTelegramBotToken(),
-                    config.getTelegramChatId()
+                    config.getTelegramChatId(),
+                    config.isTelegramHtml()
             ));
         }
-        
+
+        // Scraping never waits for a chat to accept a message
+        long batchMillis = TimeUnit.SECONDS.toMillis(config.getNotifyBatchSeconds());
+        // Jobs a notifier could not take or deliver are kept in the storage directory until they are sent
+        notifiers.replaceAll(notifier -> new QueuedNotifier(notifier, config.getNotifyQueueCapacity(), batchMillis,
+                Paths.get(config.getStorageDirectory(), "notify-" + notifier.getClass().getSimpleName() + ".spill")));
         return notifiers;
     }
 }
@@ -1,13 +1,21 @@
 package com.jobmonitor.config;
 
 import java.util.List;
+import java.util.Map;
 
 public class AppConfig {
     private final String jobsFile;
+    private final String storageType;
+    private final String storageDirectory;
+    private final int storageCompactionKb;
+    private final int storageRetentionDays;
     private final int snippetMaxLength;
     private final int checkIntervalMinutes;
     private final int sleepHour;
-    private final long sleepTimeMs;
+    private final int sleepTimeHours;
+    private final List<String> quietDays;
+    private final String quietZone;
+    private final boolean quietCatchUp;
     
     private final String telegramBotToken;
     private final String telegramChatId;
@@ -21,13 +29,62 @@ public class AppConfig {
     private final List<String> locations;
     private final List<String> excludedPageTerms;
     private final List<String> excludedTitleTerms;
+    private final boolean filterWholeWords;
+    private final boolean seenLinksExact;
+    private final boolean descriptionCacheEnabled;
+    private final boolean httpCacheEnabled;
+    private final int httpCacheMaxKb;
+    private final int descriptionCacheMemoryEntries;
+    private final int descriptionCacheTtlDays;
+    private final boolean nearDuplicateEnabled;
+    private final int nearDuplicateMaxDistance;
+
+    private final boolean concurrentProviders;
+    private final int providerThreads;
+    private final int providerTimeoutSeconds;
+    private final Map<String, Integer> providerTimeouts;
+    private final Map<String, Integer> providerIntervals;
+    private final boolean adaptiveProviderIntervals;
+    private final int providerRetries;
+    private final int circuitWindow;
+    private final int circuitFailureRatePercent;
+    private final int circuitOpenMinutes;
+
+    private final int notifyQueueCapacity;
+    private final int notifyBatchSeconds;
+    private final boolean telegramHtml;
+
+    private final int metricsPort;
+    private final String metricsHost;
+    private final boolean flightRecordingEnabled;
+    private final int flightRecordingMaxAgeMinutes;
+    private final int flightRecordingMaxMb;
+    private final int slowRunSeconds;
+
+    private final int webDriverPoolSize;
+    private final int webDriverMaxAgeMinutes;
+    private final int descriptionParallelism;
+
+    private final boolean workdayApiEnabled;
+    private final int workdayMaxPostedDays;
+    private final List<String> workdayDescriptionFilter;
+    private final boolean appleHttpEnabled;
+    private final boolean googleConcurrentPages;
+    private final int googleDailyRequestLimit;
 
     private AppConfig(Builder builder) {
         this.jobsFile = builder.jobsFile;
+        this.storageType = builder.storageType;
+        this.storageDirectory = builder.storageDirectory;
+        this.storageCompactionKb = builder.storageCompactionKb;
+        this.storageRetentionDays = builder.storageRetentionDays;
         this.snippetMaxLength = builder.snippetMaxLength;
         this.checkIntervalMinutes = builder.checkIntervalMinutes;
         this.sleepHour = builder.sleepHour;
-        this.sleepTimeMs = builder.sleepTimeHour;
+        this.sleepTimeHours = builder.sleepTimeHours;
+        this.quietDays = builder.quietDays;
+        this.quietZone = builder.quietZone;
+        this.quietCatchUp = builder.quietCatchUp;
         this.telegramBotToken = builder.telegramBotToken;
         this.telegramChatId = builder.telegramChatId;
         this.apiKey = builder.apiKey;
@@ -38,14 +95,58 @@ public class AppConfig {
         this.locations = builder.locations;
         this.excludedPageTerms = builder.excludedPageTerms;
         this.excludedTitleTerms = builder.excludedTitleTerms;
+        this.filterWholeWords = builder.filterWholeWords;
+        this.seenLinksExact = builder.seenLinksExact;
+        this.descriptionCacheEnabled = builder.descriptionCacheEnabled;
+        this.httpCacheEnabled = builder.httpCacheEnabled;
+        this.httpCacheMaxKb = builder.httpCacheMaxKb;
+        this.descriptionCacheMemoryEntries = builder.descriptionCacheMemoryEntries;
+        this.descriptionCacheTtlDays = builder.descriptionCacheTtlDays;
+        this.nearDuplicateEnabled = builder.nearDuplicateEnabled;
+        this.nearDuplicateMaxDistance = builder.nearDuplicateMaxDistance;
+        this.concurrentProviders = builder.concurrentProviders;
+        this.providerThreads = builder.providerThreads;
+        this.providerTimeoutSeconds = builder.providerTimeoutSeconds;
+        this.providerTimeouts = builder.providerTimeouts;
+        this.providerIntervals = builder.providerIntervals;
+        this.adaptiveProviderIntervals = builder.adaptiveProviderIntervals;
+        this.providerRetries = builder.providerRetries;
+        this.circuitWindow = builder.circuitWindow;
+        this.circuitFailureRatePercent = builder.circuitFailureRatePercent;
+        this.circuitOpenMinutes = builder.circuitOpenMinutes;
+        this.notifyQueueCapacity = builder.notifyQueueCapacity;
+        this.notifyBatchSeconds = builder.notifyBatchSeconds;
+        this.telegramHtml = builder.telegramHtml;
+        this.metricsPort = builder.metricsPort;
+        this.metricsHost = builder.metricsHost;
+        this.flightRecordingEnabled = builder.flightRecordingEnabled;
+        this.flightRecordingMaxAgeMinutes = builder.flightRecordingMaxAgeMinutes;
+        this.flightRecordingMaxMb = builder.flightRecordingMaxMb;
+        this.slowRunSeconds = builder.slowRunSeconds;
+        this.webDriverPoolSize = builder.webDriverPoolSize;
+        this.webDriverMaxAgeMinutes = builder.webDriverMaxAgeMinutes;
+        this.descriptionParallelism = builder.descriptionParallelism;
+        this.workdayApiEnabled = builder.workdayApiEnabled;
+        this.workdayMaxPostedDays = builder.workdayMaxPostedDays;
+        this.workdayDescriptionFilter = builder.workdayDescriptionFilter;
+        this.appleHttpEnabled = builder.appleHttpEnabled;
+        this.googleConcurrentPages = builder.googleConcurrentPages;
+        this.googleDailyRequestLimit = builder.googleDailyRequestLimit;
     }
 
     public String getJobsFile() { return jobsFile; }
+    public String getStorageType() { return storageType; }
+    public String getStorageDirectory() { return storageDirectory; }
+    public int getStorageCompactionKb() { return storageCompactionKb; }
+    public int getStorageRetentionDays() { return storageRetentionDays; }
     public int getSnippetMaxLength() { return snippetMaxLength; }
     public int getCheckIntervalMinutes() { return checkIntervalMinutes; }
 
     public int getSleepHour() { return sleepHour; }
-    public long getSleepTimeMs() { return sleepTimeMs; }
+    public int getSleepTimeHours() { return sleepTimeHours; }
+    public List<String> getQuietDays() { return quietDays; }
+    public String getQuietZone() { return quietZone; }
+    public boolean isQuietCatchUp() { return quietCatchUp; }
     public String getTelegramBotToken() { return telegramBotToken; }
     public String getTelegramChatId() { return telegramChatId; }
     public String getApiKey() { return apiKey; }
@@ -56,15 +157,68 @@ public class AppConfig {
     public List<String> getLocations() { return locations; }
     public List<String> getExcludedPageTerms() { return excludedPageTerms; }
     public List<String> getExcludedTitleTerms() { return excludedTitleTerms; }
+    public boolean isFilterWholeWords() { return filterWholeWords; }
+    public boolean isSeenLinksExact() { return seenLinksExact; }
+    public boolean isDescriptionCacheEnabled() { return descriptionCacheEnabled; }
+    public boolean isHttpCacheEnabled() { return httpCacheEnabled; }
+    public int getHttpCacheMaxKb() { return httpCacheMaxKb; }
+    public int getDescriptionCacheMemoryEntries() { return descriptionCacheMemoryEntries; }
+    public int getDescriptionCacheTtlDays() { return descriptionCacheTtlDays; }
+    public boolean isNearDuplicateEnabled() { return nearDuplicateEnabled; }
+    public int getNearDuplicateMaxDistance() { return nearDuplicateMaxDistance; }
+    public boolean isConcurrentProviders() { return concurrentProviders; }
+    public int getProviderThreads() { return providerThreads; }
+
+    public int getProviderTimeoutSeconds(String providerName) {
+        return providerTimeouts.getOrDefault(providerName, providerTimeoutSeconds);
+    }
+
+    public int getProviderIntervalMinutes(String providerName) {
+        return providerIntervals.getOrDefault(providerName, checkIntervalMinutes);
+    }
+
+    public boolean isAdaptiveProviderIntervals() { return adaptiveProviderIntervals; }
+    public int getProviderRetries() { return providerRetries; }
+    public int getCircuitWindow() { return circuitWindow; }
+    public int getCircuitFailureRatePercent() { return circuitFailureRatePercent; }
+    public int getCircuitOpenMinutes() { return circuitOpenMinutes; }
+
+    public int getNotifyQueueCapacity() { return notifyQueueCapacity; }
+    public int getNotifyBatchSeconds() { return notifyBatchSeconds; }
+    public boolean isTelegramHtml() { return telegramHtml; }
+
+    public int getMetricsPort() { return metricsPort; }
+    public String getMetricsHost() { return metricsHost; }
+    public boolean isFlightRecordingEnabled() { return flightRecordingEnabled; }
+    public int getFlightRecordingMaxAgeMinutes() { return flightRecordingMaxAgeMinutes; }
+    public int getFlightRecordingMaxMb() { return flightRecordingMaxMb; }
+    public int getSlowRunSeconds() { return slowRunSeconds; }
+
+    public int getWebDriverPoolSize() { return webDriverPoolSize; }
+    public int getWebDriverMaxAgeMinutes() { return webDriverMaxAgeMinutes; }
+    public int getDescriptionParallelism() { return descriptionParallelism; }
+    public boolean isWorkdayApiEnabled() { return workdayApiEnabled; }
+    public int getWorkdayMaxPostedDays() { return workdayMaxPostedDays; }
+    public List<String> getWorkdayDescriptionFilter() { return workdayDescriptionFilter; }
+    public boolean isAppleHttpEnabled() { return appleHttpEnabled; }
+    public boolean isGoogleConcurrentPages() { return googleConcurrentPages; }
+    public int getGoogleDailyRequestLimit() { return googleDailyRequestLimit; }
 
     public static class Builder {
         private String jobsFile = "jobs.json";
+        private String storageType = "records";
+        private String storageDirectory = "data";
+        private int storageCompactionKb = 1024;
+        private int storageRetentionDays = 180;
         private int snippetMaxLength = 80;
         private int checkIntervalMinutes = 60;
         private int sleepHour = 23;
 
         //Time in sleep, until resume work
-        private long sleepTimeHour = 7;
+        private int sleepTimeHours = 7;
+        private List<String> quietDays = List.of();
+        private String quietZone = "";
+        private boolean quietCatchUp = true;
         private String telegramBotToken;
         private String telegramChatId;
         private String apiKey;
@@ -75,12 +229,71 @@ public class AppConfig {
         private List<String> locations;
         private List<String> excludedPageTerms;
         private List<String> excludedTitleTerms;
+        private boolean filterWholeWords = true;
+        private boolean seenLinksExact = false;
+        private boolean descriptionCacheEnabled = true;
+        private boolean httpCacheEnabled = true;
+        private int httpCacheMaxKb = 4096;
+        private int descriptionCacheMemoryEntries = 200;
+        private int descriptionCacheTtlDays = 30;
+        private boolean nearDuplicateEnabled = true;
+        private int nearDuplicateMaxDistance = 3;
+        private boolean concurrentProviders = true;
+        private int providerThreads = 5;
+        private int providerTimeoutSeconds = 900;
+        private Map<String, Integer> providerTimeouts = Map.of();
+        private Map<String, Integer> providerIntervals = Map.of();
+        private boolean adaptiveProviderIntervals = true;
+        private int providerRetries = 2;
+        private int circuitWindow = 10;
+        private int circuitFailureRatePercent = 50;
+        private int circuitOpenMinutes = 60;
+        private int notifyQueueCapacity = 500;
+        private int notifyBatchSeconds = 5;
+        private boolean telegramHtml = false;
+        private int metricsPort = 0;
+        private String metricsHost = "127.0.0.1";
+        private boolean flightRecordingEnabled = false;
+        private int flightRecordingMaxAgeMinutes = 60;
+        private int flightRecordingMaxMb = 64;
+        private int slowRunSeconds = 300;
+        private int webDriverPoolSize = 4;
+        private int webDriverMaxAgeMinutes = 240;
+        private int descriptionParallelism = 2;
+        private boolean workdayApiEnabled = true;
+        private int workdayMaxPostedDays = 0;
+        private List<String> workdayDescriptionFilter = List.of();
+        private boolean appleHttpEnabled = true;
+        private boolean googleConcurrentPages = true;
+        private int googleDailyRequestLimit = 100;
 
         public Builder jobsFile(String jobsFile) {
             this.jobsFile = jobsFile;
             return this;
         }
 
+        // "records" for full job records, "log" for the append-only link log, "text" for the plain jobs file
+        public Builder storageType(String storageType) {
+            this.storageType = storageType;
+            return this;
+        }
+
+        public Builder storageDirectory(String storageDirectory) {
+            this.storageDirectory = storageDirectory;
+            return this;
+        }
+
+        public Builder storageCompactionKb(int storageCompactionKb) {
+            this.storageCompactionKb = storageCompactionKb;
+            return this;
+        }
+
+        // Links first seen longer ago are forgotten, 0 keeps them forever
+        public Builder storageRetentionDays(int storageRetentionDays) {
+            this.storageRetentionDays = storageRetentionDays;
+            return this;
+        }
+
         public Builder snippetMaxLength(int snippetMaxLength) {
             this.snippetMaxLength = snippetMaxLength;
             return this;
@@ -146,8 +359,228 @@ public class AppConfig {
             return this;
         }
 
+        public Builder filterWholeWords(boolean filterWholeWords) {
+            this.filterWholeWords = filterWholeWords;
+            return this;
+        }
+
+        // Keep full canonical links next to their fingerprints, so a fingerprint collision cannot hide a job
+        public Builder seenLinksExact(boolean seenLinksExact) {
+            this.seenLinksExact = seenLinksExact;
+            return this;
+        }
+
+        public Builder descriptionCacheEnabled(boolean descriptionCacheEnabled) {
+            this.descriptionCacheEnabled = descriptionCacheEnabled;
+            return this;
+        }
+
+        // Descriptions kept decompressed in memory, the rest are read back from disk
+        public Builder descriptionCacheMemoryEntries(int descriptionCacheMemoryEntries) {
+            this.descriptionCacheMemoryEntries = descriptionCacheMemoryEntries;
+            return this;
+        }
+
+        // Cached descriptions older than this are loaded again, 0 keeps them forever
+        public Builder descriptionCacheTtlDays(int descriptionCacheTtlDays) {
+            this.descriptionCacheTtlDays = descriptionCacheTtlDays;
+            return this;
+        }
+
+        public Builder httpCacheEnabled(boolean httpCacheEnabled) {
+            this.httpCacheEnabled = httpCacheEnabled;
+            return this;
+        }
+
+        // Memory (and file) budget for cached responses, least recently used ones go first
+        public Builder httpCacheMaxKb(int httpCacheMaxKb) {
+            this.httpCacheMaxKb = httpCacheMaxKb;
+            return this;
+        }
+
+        public Builder nearDuplicateEnabled(boolean nearDuplicateEnabled) {
+            this.nearDuplicateEnabled = nearDuplicateEnabled;
+            return this;
+        }
+
+        // Most SimHash bits (of 64) two jobs may differ in and still count as the same posting
+        public Builder nearDuplicateMaxDistance(int nearDuplicateMaxDistance) {
+            this.nearDuplicateMaxDistance = nearDuplicateMaxDistance;
+            return this;
+        }
+
         public Builder sleepTimeHours(int hours) {
-            this.sleepTimeHour = hours;
+            this.sleepTimeHours = hours;
+            return this;
+        }
+
+        // Days without any checks, e.g. ["saturday"]
+        public Builder quietDays(List<String> quietDays) {
+            this.quietDays = quietDays;
+            return this;
+        }
+
+        // Zone the quiet hours and days are read in, empty for the system zone
+        public Builder quietZone(String quietZone) {
+            this.quietZone = quietZone;
+            return this;
+        }
+
+        // Run providers that were due during a quiet period as soon as it ends
+        public Builder quietCatchUp(boolean quietCatchUp) {
+            this.quietCatchUp = quietCatchUp;
+            return this;
+        }
+
+        public Builder concurrentProviders(boolean concurrentProviders) {
+            this.concurrentProviders = concurrentProviders;
+            return this;
+        }
+
+        public Builder providerThreads(int providerThreads) {
+            this.providerThreads = providerThreads;
+            return this;
+        }
+
+        public Builder providerTimeoutSeconds(int providerTimeoutSeconds) {
+            this.providerTimeoutSeconds = providerTimeoutSeconds;
+            return this;
+        }
+
+        // Per provider overrides of providerTimeoutSeconds, keyed by JobsProvider.getName()
+        public Builder providerTimeouts(Map<String, Integer> providerTimeouts) {
+            this.providerTimeouts = providerTimeouts;
+            return this;
+        }
+
+        // Per provider base polling intervals in minutes, checkIntervalMinutes for the others
+        public Builder providerIntervals(Map<String, Integer> providerIntervals) {
+            this.providerIntervals = providerIntervals;
+            return this;
+        }
+
+        // Let each provider's interval follow how often it finds new jobs
+        public Builder adaptiveProviderIntervals(boolean adaptiveProviderIntervals) {
+            this.adaptiveProviderIntervals = adaptiveProviderIntervals;
+            return this;
+        }
+
+        // Extra attempts after a transient failure within one run
+        public Builder providerRetries(int providerRetries) {
+            this.providerRetries = providerRetries;
+            return this;
+        }
+
+        // Number of recent runs the failure rate is taken over
+        public Builder circuitWindow(int circuitWindow) {
+            this.circuitWindow = circuitWindow;
+            return this;
+        }
+
+        public Builder circuitFailureRatePercent(int circuitFailureRatePercent) {
+            this.circuitFailureRatePercent = circuitFailureRatePercent;
+            return this;
+        }
+
+        public Builder circuitOpenMinutes(int circuitOpenMinutes) {
+            this.circuitOpenMinutes = circuitOpenMinutes;
+            return this;
+        }
+
+        // Jobs each notifier may have waiting for delivery, more are dropped for that notifier
+        public Builder notifyQueueCapacity(int notifyQueueCapacity) {
+            this.notifyQueueCapacity = notifyQueueCapacity;
+            return this;
+        }
+
+        // How long a notifier waits for more jobs before sending what has arrived
+        public Builder notifyBatchSeconds(int notifyBatchSeconds) {
+            this.notifyBatchSeconds = notifyBatchSeconds;
+            return this;
+        }
+
+        // Compact HTML messages: the title links to the job instead of a separate link line
+        public Builder telegramHtml(boolean telegramHtml) {
+            this.telegramHtml = telegramHtml;
+            return this;
+        }
+
+        // 0 turns the metrics endpoint off
+        public Builder metricsPort(int metricsPort) {
+            this.metricsPort = metricsPort;
+            return this;
+        }
+
+        public Builder metricsHost(String metricsHost) {
+            this.metricsHost = metricsHost;
+            return this;
+        }
+
+        public Builder flightRecordingEnabled(boolean flightRecordingEnabled) {
+            this.flightRecordingEnabled = flightRecordingEnabled;
+            return this;
+        }
+
+        // The recording keeps only this much history, older data is overwritten
+        public Builder flightRecordingMaxAgeMinutes(int flightRecordingMaxAgeMinutes) {
+            this.flightRecordingMaxAgeMinutes = flightRecordingMaxAgeMinutes;
+            return this;
+        }
+
+        public Builder flightRecordingMaxMb(int flightRecordingMaxMb) {
+            this.flightRecordingMaxMb = flightRecordingMaxMb;
+            return this;
+        }
+
+        // Provider runs taking longer than this dump the flight recording
+        public Builder slowRunSeconds(int slowRunSeconds) {
+            this.slowRunSeconds = slowRunSeconds;
+            return this;
+        }
+
+        public Builder webDriverPoolSize(int webDriverPoolSize) {
+            this.webDriverPoolSize = webDriverPoolSize;
+            return this;
+        }
+
+        public Builder webDriverMaxAgeMinutes(int webDriverMaxAgeMinutes) {
+            this.webDriverMaxAgeMinutes = webDriverMaxAgeMinutes;
+            return this;
+        }
+
+        public Builder descriptionParallelism(int descriptionParallelism) {
+            this.descriptionParallelism = descriptionParallelism;
+            return this;
+        }
+
+        public Builder workdayApiEnabled(boolean workdayApiEnabled) {
+            this.workdayApiEnabled = workdayApiEnabled;
+            return this;
+        }
+
+        public Builder workdayMaxPostedDays(int workdayMaxPostedDays) {
+            this.workdayMaxPostedDays = workdayMaxPostedDays;
+            return this;
+        }
+
+        // Names of Workday providers that also validate the full job description
+        public Builder workdayDescriptionFilter(List<String> workdayDescriptionFilter) {
+            this.workdayDescriptionFilter = workdayDescriptionFilter;
+            return this;
+        }
+
+        public Builder appleHttpEnabled(boolean appleHttpEnabled) {
+            this.appleHttpEnabled = appleHttpEnabled;
+            return this;
+        }
+
+        public Builder googleConcurrentPages(boolean googleConcurrentPages) {
+            this.googleConcurrentPages = googleConcurrentPages;
+            return this;
+        }
+
+        public Builder googleDailyRequestLimit(int googleDailyRequestLimit) {
+            this.googleDailyRequestLimit = googleDailyRequestLimit;
             return this;
         }
 
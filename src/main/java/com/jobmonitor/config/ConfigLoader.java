@@ -3,7 +3,9 @@ package com.jobmonitor.config;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.stream.Collectors;
 
@@ -15,16 +17,60 @@ public class ConfigLoader {
         
         return new AppConfig.Builder()
                 .jobsFile(getProperty(props, "jobs.file", "jobs.txt"))
+                .storageType(getProperty(props, "storage.type", "records"))
+                .storageDirectory(getProperty(props, "storage.dir", "data"))
+                .storageCompactionKb(getIntProperty(props, "storage.compaction.kb", 1024))
+                .storageRetentionDays(getIntProperty(props, "storage.retention.days", 180))
+                .seenLinksExact(getBooleanProperty(props, "seen.links.exact", false))
+                .descriptionCacheEnabled(getBooleanProperty(props, "description.cache.enabled", true))
+                .descriptionCacheMemoryEntries(getIntProperty(props, "description.cache.memory.entries", 200))
+                .descriptionCacheTtlDays(getIntProperty(props, "description.cache.ttl.days", 30))
+                .httpCacheEnabled(getBooleanProperty(props, "http.cache.enabled", true))
+                .httpCacheMaxKb(getIntProperty(props, "http.cache.max.kb", 4096))
+                .nearDuplicateEnabled(getBooleanProperty(props, "dedup.near.enabled", true))
+                .nearDuplicateMaxDistance(getIntProperty(props, "dedup.near.max.distance", 3))
                 .snippetMaxLength(getIntProperty(props, "snippet.max.length", 80))
                 .checkIntervalMinutes(getIntProperty(props, "check.interval.minutes", 60))
                 .sleepHour(getIntProperty(props, "sleep.hour", 23))
                 .sleepTimeHours(getIntProperty(props, "sleep.time.hours", 7))
+                .quietDays(parseList(props, "quiet.days"))
+                .quietZone(getProperty(props, "quiet.zone", ""))
+                .quietCatchUp(getBooleanProperty(props, "quiet.catchup", true))
                 .countryCode(getProperty(props, "google.country.code", "IL"))
+                .googleConcurrentPages(getBooleanProperty(props, "google.concurrent.pages", true))
+                .googleDailyRequestLimit(getIntProperty(props, "google.daily.request.limit", 100))
                 .positions(parseList(props, "search.positions"))
                 .levels(parseList(props, "search.levels"))
                 .locations(parseList(props, "search.locations"))
                 .excludedPageTerms(parseList(props, "excluded.page.terms"))
                 .excludedTitleTerms(parseList(props, "excluded.title.terms"))
+                .filterWholeWords(getBooleanProperty(props, "filter.whole.words", true))
+                .concurrentProviders(getBooleanProperty(props, "providers.concurrent", true))
+                .providerThreads(getIntProperty(props, "providers.threads", 5))
+                .providerTimeoutSeconds(getIntProperty(props, "provider.timeout.seconds", 900))
+                .providerTimeouts(parseIntMap(props, "provider.timeouts"))
+                .providerIntervals(parseIntMap(props, "provider.intervals"))
+                .adaptiveProviderIntervals(getBooleanProperty(props, "provider.intervals.adaptive", true))
+                .providerRetries(getIntProperty(props, "provider.retries", 2))
+                .circuitWindow(getIntProperty(props, "circuit.failure.window", 10))
+                .circuitFailureRatePercent(getIntProperty(props, "circuit.failure.rate", 50))
+                .circuitOpenMinutes(getIntProperty(props, "circuit.open.minutes", 60))
+                .notifyQueueCapacity(getIntProperty(props, "notify.queue.capacity", 500))
+                .notifyBatchSeconds(getIntProperty(props, "notify.batch.seconds", 5))
+                .telegramHtml(getBooleanProperty(props, "telegram.html", false))
+                .metricsPort(getIntProperty(props, "metrics.port", 0))
+                .metricsHost(getProperty(props, "metrics.host", "127.0.0.1"))
+                .flightRecordingEnabled(getBooleanProperty(props, "jfr.enabled", false))
+                .flightRecordingMaxAgeMinutes(getIntProperty(props, "jfr.max.age.minutes", 60))
+                .flightRecordingMaxMb(getIntProperty(props, "jfr.max.size.mb", 64))
+                .slowRunSeconds(getIntProperty(props, "jfr.slow.run.seconds", 300))
+                .webDriverPoolSize(getIntProperty(props, "webdriver.pool.size", 4))
+                .webDriverMaxAgeMinutes(getIntProperty(props, "webdriver.pool.max.age.minutes", 240))
+                .descriptionParallelism(getIntProperty(props, "description.fetch.parallelism", 2))
+                .workdayApiEnabled(getBooleanProperty(props, "workday.api.enabled", true))
+                .workdayMaxPostedDays(getIntProperty(props, "workday.max.posted.days", 0))
+                .workdayDescriptionFilter(parseList(props, "workday.description.filter"))
+                .appleHttpEnabled(getBooleanProperty(props, "apple.http.enabled", true))
                 .telegramBotToken(System.getenv("TELEGRAM_BOT_TOKEN"))
                 .telegramChatId(System.getenv("TELEGRAM_CHAT_ID"))
                 .apiKey(System.getenv("API_KEY"))
@@ -55,6 +101,10 @@ public class ConfigLoader {
         return value != null ? Integer.parseInt(value) : defaultValue;
     }
 
+    private static boolean getBooleanProperty(Properties props, String key, boolean defaultValue) {
+        String value = props.getProperty(key);
+        return value != null ? Boolean.parseBoolean(value.trim()) : defaultValue;
+    }
 
     private static List<String> parseList(Properties props, String key) {
         String value = props.getProperty(key, "");
@@ -63,4 +113,18 @@ public class ConfigLoader {
                 .filter(s -> !s.isEmpty())
                 .collect(Collectors.toList());
     }
+
+    // Parses "name:value,name:value" into a map, e.g. provider.timeouts=imperva:1200,apple:300
+    private static Map<String, Integer> parseIntMap(Properties props, String key) {
+        Map<String, Integer> values = new HashMap<>();
+        for (String entry : parseList(props, key)) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                System.err.println("Ignoring malformed " + key + " entry: " + entry);
+                continue;
+            }
+            values.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return values;
+    }
 }
@@ -0,0 +1,35 @@
+package com.jobmonitor.http;
+
+// Status and body of a request sent through HttpCache, a 304 answered from the cache reads as a 200
+public final class CachedResponse {
+
+    private final int statusCode;
+    private final String body;
+    private final boolean fromCache;
+    private final boolean sent;
+
+    CachedResponse(int statusCode, String body, boolean fromCache, boolean sent) {
+        this.statusCode = statusCode;
+        this.body = body;
+        this.fromCache = fromCache;
+        this.sent = sent;
+    }
+
+    public int statusCode() {
+        return statusCode;
+    }
+
+    public String body() {
+        return body;
+    }
+
+    // True when the body came from the local store, with or without a revalidation request
+    public boolean isFromCache() {
+        return fromCache;
+    }
+
+    // False only when a fresh stored body answered without any request, a revalidation counts as sent
+    public boolean wasSent() {
+        return sent;
+    }
+}
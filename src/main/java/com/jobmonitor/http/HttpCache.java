@@ -0,0 +1,327 @@
+package com.jobmonitor.http;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Private HTTP cache for GET requests. A 200 response is stored with its ETag, Last-Modified and max-age,
+// less the Age a shared cache on the way reported: while fresh it is answered locally without a request, afterwards it is revalidated with a conditional
+// request and a 304 is answered from the stored body. Entries are keyed by a SHA-256 of the URL, so API keys
+// in query strings never reach the disk. The store is kept in memory (least recently used entries are
+// dropped past maxBytes) and saved, gzipped, to one file every few minutes and on close.
+public class HttpCache {
+
+    private static final int FILE_MAGIC = 0x48544331; // "HTC1"
+    private static final long SAVE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final HttpClient client;
+    private final Path file;
+    private final long maxBytes;
+
+    // Guarded by this
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private boolean dirty;
+    private long lastSaveMillis = System.currentTimeMillis();
+    private long fresh;
+    private long revalidated;
+    private long misses;
+
+    public HttpCache(HttpClient client, Path file, long maxBytes) {
+        this.client = client;
+        this.file = file;
+        this.maxBytes = maxBytes;
+        load();
+    }
+
+    // Sends every request straight through, for when caching is turned off
+    public static HttpCache disabled(HttpClient client) {
+        return new HttpCache(client, null, 0);
+    }
+
+    public CachedResponse send(HttpRequest request) throws IOException, InterruptedException {
+        return HttpClients.await(sendAsync(request));
+    }
+
+    public CompletableFuture<CachedResponse> sendAsync(HttpRequest request) {
+        if (maxBytes <= 0 || !request.method().equals("GET")) {
+            return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .thenApply(response -> new CachedResponse(response.statusCode(), response.body(), false, true));
+        }
+
+        String key = key(request.uri());
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null && entry.isFresh(System.currentTimeMillis())) {
+                fresh++;
+                return CompletableFuture.completedFuture(new CachedResponse(200, entry.body, true, false));
+            }
+        }
+
+        HttpRequest.Builder conditional = HttpRequest.newBuilder(request, (name, value) -> true);
+        if (entry != null && !entry.etag.isEmpty()) {
+            conditional.setHeader("If-None-Match", entry.etag);
+        }
+        if (entry != null && !entry.lastModified.isEmpty()) {
+            conditional.setHeader("If-Modified-Since", entry.lastModified);
+        }
+
+        return client.sendAsync(conditional.build(), HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> received(key, entry, response));
+    }
+
+    // Saves the store if anything changed since it was last saved
+    public void save() {
+        Map<String, Entry> snapshot;
+        synchronized (this) {
+            if (file == null || !dirty) {
+                return;
+            }
+            snapshot = new LinkedHashMap<>(entries);
+            dirty = false;
+            lastSaveMillis = System.currentTimeMillis();
+        }
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (OutputStream stream = Files.newOutputStream(temporary);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(stream)))) {
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(snapshot.size());
+                for (Map.Entry<String, Entry> entry : snapshot.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    entry.getValue().write(out);
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("Error saving HTTP cache: " + e.getMessage());
+        }
+        System.out.println("HTTP cache: " + this);
+    }
+
+    public void close() {
+        save();
+    }
+
+    @Override
+    public synchronized String toString() {
+        long requests = fresh + revalidated + misses;
+        long ratio = requests == 0 ? 0 : 100 * (fresh + revalidated) / requests;
+        return entries.size() + " response(s), " + bytes / 1024 + " KB, " + fresh + " fresh + " +
+                revalidated + " revalidated of " + requests + " request(s) (" + ratio + "% hits)";
+    }
+
+    private CachedResponse received(String key, Entry previous, HttpResponse<String> response) {
+        long now = System.currentTimeMillis();
+        CachedResponse result;
+
+        synchronized (this) {
+            if (response.statusCode() == 304 && previous != null) {
+                revalidated++;
+                // A 304 may carry new freshness or validators, otherwise the stored ones stay
+                store(key, previous.refreshed(response.headers(), now));
+                result = new CachedResponse(200, previous.body, true, true);
+            } else {
+                misses++;
+                if (response.statusCode() == 200) {
+                    Entry entry = Entry.of(response, now);
+                    if (entry != null) {
+                        store(key, entry);
+                    } else {
+                        remove(key);
+                    }
+                }
+                result = new CachedResponse(response.statusCode(), response.body(), false, true);
+            }
+        }
+
+        if (now - lastSaveMillis >= SAVE_INTERVAL_MILLIS) {
+            save();
+        }
+        return result;
+    }
+
+    private void store(String key, Entry entry) {
+        remove(key);
+        entries.put(key, entry);
+        bytes += entry.size();
+        dirty = true;
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().size();
+            eldest.remove();
+        }
+    }
+
+    private void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            bytes -= removed.size();
+            dirty = true;
+        }
+    }
+
+    private void load() {
+        if (file == null || !Files.exists(file)) {
+            return;
+        }
+
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(stream)))) {
+            if (in.readInt() != FILE_MAGIC) {
+                throw new IOException("unknown format");
+            }
+            int count = in.readInt();
+            synchronized (this) {
+                for (int i = 0; i < count; i++) {
+                    store(in.readUTF(), Entry.read(in));
+                }
+                dirty = false;
+            }
+            System.out.println("Loaded " + entries.size() + " cached HTTP response(s) from " + file);
+        } catch (IOException e) {
+            System.err.println("Ignoring HTTP cache " + file + ": " + e.getMessage());
+            synchronized (this) {
+                entries.clear();
+                bytes = 0;
+            }
+        }
+    }
+
+    private static String key(URI uri) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(uri.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Entry {
+        final String body;
+        final String etag;
+        final String lastModified;
+        final long storedMillis;
+        final long maxAgeMillis;
+
+        Entry(String body, String etag, String lastModified, long storedMillis, long maxAgeMillis) {
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.storedMillis = storedMillis;
+            this.maxAgeMillis = maxAgeMillis;
+        }
+
+        // Null when the response must not be stored or could never be reused
+        static Entry of(HttpResponse<String> response, long now) {
+            HttpHeaders headers = response.headers();
+            String cacheControl = headers.allValues("Cache-Control").toString().toLowerCase(Locale.ROOT);
+            if (cacheControl.contains("no-store")) {
+                return null;
+            }
+
+            String etag = headers.firstValue("ETag").orElse("");
+            String lastModified = headers.firstValue("Last-Modified").orElse("");
+            long maxAge = freshnessMillis(headers);
+            if (etag.isEmpty() && lastModified.isEmpty() && maxAge <= 0) {
+                return null;
+            }
+            return new Entry(response.body(), etag, lastModified, now, maxAge);
+        }
+
+        Entry refreshed(HttpHeaders headers, long now) {
+            boolean hasMaxAge = !headers.allValues("Cache-Control").isEmpty();
+            return new Entry(body,
+                    headers.firstValue("ETag").orElse(etag),
+                    headers.firstValue("Last-Modified").orElse(lastModified),
+                    now,
+                    hasMaxAge ? freshnessMillis(headers) : maxAgeMillis);
+        }
+
+        boolean isFresh(long now) {
+            return now - storedMillis < maxAgeMillis;
+        }
+
+        // Strings are held as UTF-16
+        long size() {
+            return 2L * (body.length() + etag.length() + lastModified.length()) + 64;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            out.writeUTF(etag);
+            out.writeUTF(lastModified);
+            out.writeLong(storedMillis);
+            out.writeLong(maxAgeMillis);
+        }
+
+        static Entry read(DataInputStream in) throws IOException {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return new Entry(new String(bytes, StandardCharsets.UTF_8), in.readUTF(), in.readUTF(),
+                    in.readLong(), in.readLong());
+        }
+
+        // How long the response stays fresh from now: max-age less the time it already spent in a shared cache
+        private static long freshnessMillis(HttpHeaders headers) {
+            long age = 0;
+            try {
+                age = Long.parseLong(headers.firstValue("Age").orElse("0").trim());
+            } catch (NumberFormatException e) {
+                // Ignored like any malformed Age
+            }
+            return Math.max(0, maxAgeMillis(headers) - TimeUnit.SECONDS.toMillis(Math.max(0, age)));
+        }
+
+        // max-age from Cache-Control, 0 for no-cache or when absent
+        private static long maxAgeMillis(HttpHeaders headers) {
+            long maxAge = 0;
+            for (String value : headers.allValues("Cache-Control")) {
+                for (String directive : value.toLowerCase(Locale.ROOT).split(",")) {
+                    directive = directive.trim();
+                    if (directive.equals("no-cache")) {
+                        return 0;
+                    }
+                    if (directive.startsWith("max-age=")) {
+                        try {
+                            maxAge = TimeUnit.SECONDS.toMillis(Long.parseLong(directive.substring(8).trim()));
+                        } catch (NumberFormatException e) {
+                            // Treated as stale
+                        }
+                    }
+                }
+            }
+            return maxAge;
+        }
+    }
+}
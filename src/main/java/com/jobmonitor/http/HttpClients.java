@@ -0,0 +1,51 @@
+package com.jobmonitor.http;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+// One HttpClient for the whole application, so providers and notifiers share its connection pool
+// and HTTP/2 connections instead of each opening their own
+public final class HttpClients {
+
+    // Set on every request: the connect timeout does not cover a server that accepts and then stalls
+    public static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final HttpClient SHARED = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(Duration.ofSeconds(15))
+            .build();
+
+    private HttpClients() {
+    }
+
+    public static HttpClient shared() {
+        return SHARED;
+    }
+
+    // Waits for an async response the way HttpClient.send does: an interrupt (e.g. a provider deadline) ends
+    // the wait and cancels the future, and the cause of a failure is thrown unwrapped
+    public static <T> T await(CompletableFuture<T> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
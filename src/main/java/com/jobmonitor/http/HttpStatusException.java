@@ -0,0 +1,24 @@
+package com.jobmonitor.http;
+
+// A request answered with an unexpected status, so callers can tell throttling and server errors
+// (worth retrying later) from requests that will keep failing
+public class HttpStatusException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+
+    public HttpStatusException(String message, int statusCode) {
+        super(message + " failed with status: " + statusCode);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    // 429 Too Many Requests, 408 Request Timeout and 5xx
+    public boolean isTransient() {
+        return statusCode == 429 || statusCode == 408 || statusCode >= 500;
+    }
+}
@@ -0,0 +1,47 @@
+package com.jobmonitor.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.function.Supplier;
+
+@Name("com.jobmonitor.BrowserStart")
+@Label("Browser Start")
+@Category({"Job Monitor", "Selenium"})
+@Description("Launch of a new browser session")
+public class BrowserStartEvent extends Event {
+
+    @Label("Provider")
+    public String provider;
+
+    @Label("Browser")
+    public String browser;
+
+    @Label("Failed")
+    @Description("The session could not be started")
+    public boolean failed;
+
+    public static BrowserStartEvent begin(String browser) {
+        BrowserStartEvent event = new BrowserStartEvent();
+        event.provider = ProviderContext.current();
+        event.browser = browser;
+        event.begin();
+        return event;
+    }
+
+    // Records the start of the session the given action returns, also when it throws
+    public static <T> T record(String browser, Supplier<T> start) {
+        BrowserStartEvent event = begin(browser);
+        try {
+            return start.get();
+        } catch (RuntimeException | Error e) {
+            event.failed = true;
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.jobmonitor.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Monotonic count, safe to increment from any number of threads without contention
+public final class Counter {
+
+    private final LongAdder value = new LongAdder();
+
+    Counter() {
+    }
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    long get() {
+        return value.sum();
+    }
+}
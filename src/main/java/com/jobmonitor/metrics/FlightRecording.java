@@ -0,0 +1,88 @@
+package com.jobmonitor.metrics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+// Optional continuous JFR recording kept as a ring buffer (bounded by age and size), with the JDK's
+// low-overhead "default" settings plus the Job Monitor events. When a provider run takes longer than the
+// slow threshold the buffer is dumped to a file, so the slow run can be opened in JDK Mission Control.
+// Dumps are at most one per DUMP_SPACING, a provider that is slow every time does not fill the disk.
+public final class FlightRecording {
+
+    private static final long DUMP_SPACING_NANOS = TimeUnit.MINUTES.toNanos(30);
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static Recording recording;
+    private static Path directory;
+    private static long slowRunNanos;
+    private static long lastDumpNanos;
+
+    private FlightRecording() {
+    }
+
+    public static synchronized void start(Path dumpDirectory, Duration maxAge, long maxBytes, Duration slowRun) {
+        if (recording != null) {
+            return;
+        }
+        try {
+            Recording started = new Recording(Configuration.getConfiguration("default"));
+            started.setName("job-monitor");
+            started.setToDisk(true);
+            started.setMaxAge(maxAge);
+            started.setMaxSize(maxBytes);
+            for (Class<?> event : new Class<?>[]{BrowserStartEvent.class, NavigationEvent.class,
+                    PaginationEvent.class, ValidationEvent.class, NotifyEvent.class, ProviderRunEvent.class}) {
+                started.enable(event.getName()).withoutThreshold();
+            }
+            started.start();
+
+            recording = started;
+            directory = dumpDirectory;
+            slowRunNanos = slowRun.toNanos();
+            lastDumpNanos = System.nanoTime() - DUMP_SPACING_NANOS;
+            System.out.println("Flight recording started, runs over " + slowRun.toSeconds() + "s are dumped to " +
+                    dumpDirectory);
+        } catch (IOException | ParseException | RuntimeException e) {
+            System.err.println("Error starting flight recording: " + e.getMessage());
+        }
+    }
+
+    // Called at the end of every provider run, a no-op unless the recording runs and the run was slow
+    public static void runFinished(String provider, long elapsedNanos) {
+        Recording current;
+        synchronized (FlightRecording.class) {
+            if (recording == null || elapsedNanos < slowRunNanos
+                    || System.nanoTime() - lastDumpNanos < DUMP_SPACING_NANOS) {
+                return;
+            }
+            lastDumpNanos = System.nanoTime();
+            current = recording;
+        }
+
+        Path file = directory.resolve("slow-" + provider + "-" + LocalDateTime.now().format(FILE_TIME) + ".jfr");
+        try {
+            Files.createDirectories(directory);
+            current.dump(file);
+            System.out.println("Provider " + provider + " took " + TimeUnit.NANOSECONDS.toSeconds(elapsedNanos) +
+                    "s, flight recording dumped to " + file);
+        } catch (IOException | IllegalStateException e) {
+            System.err.println("Error dumping flight recording: " + e.getMessage());
+        }
+    }
+
+    public static synchronized void stop() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.jobmonitor.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency histogram with power-of-two buckets from about 1 ms to 71 minutes, like HdrHistogram without
+// sub-buckets: the bucket of a value is found from its leading zeros, so recording is a bit count and two
+// LongAdder increments, no lock and no search.
+public final class Histogram {
+
+    // Bucket i holds values up to 2^(MIN_EXPONENT + i) microseconds
+    private static final int MIN_EXPONENT = 10;
+    private static final int BUCKETS = 23;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS + 1];
+    private final LongAdder sumNanos = new LongAdder();
+
+    Histogram() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    public void recordNanos(long nanos) {
+        long micros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos));
+        // ceil(log2(micros))
+        int exponent = 64 - Long.numberOfLeadingZeros(micros - 1);
+        int bucket = Math.max(0, Math.min(BUCKETS, exponent - MIN_EXPONENT));
+        counts[bucket].increment();
+        sumNanos.add(nanos);
+    }
+
+    // Nanoseconds elapsed since startNanos, a System.nanoTime() value
+    public void recordSince(long startNanos) {
+        recordNanos(System.nanoTime() - startNanos);
+    }
+
+    int bucketCount() {
+        return BUCKETS;
+    }
+
+    // Upper bound of bucket i in seconds
+    static double upperBoundSeconds(int bucket) {
+        return (1L << (MIN_EXPONENT + bucket)) / 1_000_000.0;
+    }
+
+    long count(int bucket) {
+        return counts[bucket].sum();
+    }
+
+    double sumSeconds() {
+        return sumNanos.sum() / 1_000_000_000.0;
+    }
+}
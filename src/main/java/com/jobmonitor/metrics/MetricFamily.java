@@ -0,0 +1,42 @@
+package com.jobmonitor.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// One named metric with a value per label value, e.g. a counter per provider.
+// Values are created on first use; after that labels() is a single lock-free map read.
+public final class MetricFamily<T> {
+
+    final String name;
+    final String help;
+    final String type;
+    // Null for a metric without labels
+    final String labelName;
+
+    private final Map<String, T> values = new ConcurrentHashMap<>();
+    private final Supplier<T> factory;
+
+    MetricFamily(String name, String help, String type, String labelName, Supplier<T> factory) {
+        this.name = name;
+        this.help = help;
+        this.type = type;
+        this.labelName = labelName;
+        this.factory = factory;
+    }
+
+    public T labels(String labelValue) {
+        String key = labelValue == null ? "" : labelValue;
+        T value = values.get(key);
+        return value != null ? value : values.computeIfAbsent(key, ignored -> factory.get());
+    }
+
+    // The value of a metric without labels
+    public T get() {
+        return labels("");
+    }
+
+    Map<String, T> values() {
+        return values;
+    }
+}
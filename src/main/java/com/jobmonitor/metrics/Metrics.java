@@ -0,0 +1,131 @@
+package com.jobmonitor.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+
+// Every metric the monitor exposes, written in the Prometheus text format by MetricsServer.
+// Recording is lock free (LongAdder counters and histogram buckets), so hot paths record unconditionally.
+public final class Metrics {
+
+    private static final List<MetricFamily<?>> FAMILIES = new ArrayList<>();
+
+    public static final MetricFamily<Histogram> PROVIDER_RUN_SECONDS = histogram("jobmonitor_provider_run_seconds",
+            "Duration of provider runs, failed ones included", "provider");
+    public static final MetricFamily<Counter> PROVIDER_FAILURES = counter("jobmonitor_provider_failures_total",
+            "Provider runs that failed or timed out", "provider");
+    public static final MetricFamily<Counter> JOBS_FETCHED = counter("jobmonitor_jobs_fetched_total",
+            "Jobs returned by providers", "provider");
+    public static final MetricFamily<Counter> TITLES_CHECKED = counter("jobmonitor_title_checked_total",
+            "Jobs checked by the title filter", "provider");
+    public static final MetricFamily<Counter> TITLES_PASSED = counter("jobmonitor_title_passed_total",
+            "Jobs that passed the title filter", "provider");
+    public static final MetricFamily<Counter> DESCRIPTIONS_CHECKED = counter("jobmonitor_description_checked_total",
+            "Job descriptions validated", "provider");
+    public static final MetricFamily<Counter> DESCRIPTIONS_PASSED = counter("jobmonitor_description_passed_total",
+            "Job descriptions that passed validation", "provider");
+    public static final MetricFamily<Counter> JOBS_NEW = counter("jobmonitor_jobs_new_total",
+            "New jobs notified", "provider");
+    public static final MetricFamily<Histogram> PIPELINE_BATCH_SECONDS = histogram("jobmonitor_pipeline_batch_seconds",
+            "Time to dedup, queue notifications for and store one batch of jobs", null);
+    public static final MetricFamily<Histogram> NOTIFY_SECONDS = histogram("jobmonitor_notify_seconds",
+            "Time to deliver one notification", "notifier");
+    public static final MetricFamily<Counter> NOTIFY_ERRORS = counter("jobmonitor_notify_errors_total",
+            "Notifications that failed", "notifier");
+    public static final MetricFamily<Counter> NOTIFY_SPILLED = counter("jobmonitor_notify_spilled_total",
+            "Jobs saved for a later delivery because a notifier queue was full or a delivery failed", "notifier");
+
+    private static final Map<String, Gauge> GAUGES = new TreeMap<>();
+
+    private Metrics() {
+    }
+
+    // A value read when metrics are scraped, e.g. the size of an index
+    public static synchronized void gauge(String name, String help, LongSupplier value) {
+        GAUGES.put(name, new Gauge(help, value));
+    }
+
+    public static String scrape() {
+        StringBuilder out = new StringBuilder();
+        for (MetricFamily<?> family : FAMILIES) {
+            if (family.values().isEmpty()) {
+                continue;
+            }
+            header(out, family.name, family.help, family.type);
+            for (Map.Entry<String, ?> entry : new TreeMap<>(family.values()).entrySet()) {
+                String label = family.labelName == null ? "" : family.labelName + "=\"" + escape(entry.getKey()) + "\"";
+                if (entry.getValue() instanceof Histogram) {
+                    writeHistogram(out, family.name, label, (Histogram) entry.getValue());
+                } else {
+                    sample(out, family.name, label, ((Counter) entry.getValue()).get());
+                }
+            }
+        }
+
+        synchronized (Metrics.class) {
+            for (Map.Entry<String, Gauge> entry : GAUGES.entrySet()) {
+                header(out, entry.getKey(), entry.getValue().help, "gauge");
+                sample(out, entry.getKey(), "", entry.getValue().value.getAsLong());
+            }
+        }
+        return out.toString();
+    }
+
+    private static MetricFamily<Counter> counter(String name, String help, String labelName) {
+        MetricFamily<Counter> family = new MetricFamily<>(name, help, "counter", labelName, Counter::new);
+        FAMILIES.add(family);
+        return family;
+    }
+
+    private static MetricFamily<Histogram> histogram(String name, String help, String labelName) {
+        MetricFamily<Histogram> family = new MetricFamily<>(name, help, "histogram", labelName, Histogram::new);
+        FAMILIES.add(family);
+        return family;
+    }
+
+    // Buckets are cumulative in this format, and the +Inf bucket is the count
+    private static void writeHistogram(StringBuilder out, String name, String label, Histogram histogram) {
+        String separator = label.isEmpty() ? "" : label + ",";
+        long cumulative = 0;
+        for (int i = 0; i < histogram.bucketCount(); i++) {
+            cumulative += histogram.count(i);
+            String le = String.format(Locale.ROOT, "%.6f", Histogram.upperBoundSeconds(i));
+            sample(out, name + "_bucket", separator + "le=\"" + le + "\"", cumulative);
+        }
+        cumulative += histogram.count(histogram.bucketCount());
+        sample(out, name + "_bucket", separator + "le=\"+Inf\"", cumulative);
+        out.append(name).append("_sum").append(label.isEmpty() ? "" : "{" + label + "}").append(' ')
+                .append(String.format(Locale.ROOT, "%.6f", histogram.sumSeconds())).append('\n');
+        sample(out, name + "_count", label, cumulative);
+    }
+
+    private static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, long value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static final class Gauge {
+        final String help;
+        final LongSupplier value;
+
+        Gauge(String help, LongSupplier value) {
+            this.help = help;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.jobmonitor.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.jobmonitor.Navigation")
+@Label("Page Navigation")
+@Category({"Job Monitor", "Selenium"})
+@Description("Browser loading a page, until the driver returns")
+public class NavigationEvent extends Event {
+
+    @Label("Provider")
+    public String provider;
+
+    @Label("URL")
+    public String url;
+
+    @Label("Failed")
+    @Description("The driver threw, e.g. a timeout or a lost session")
+    public boolean failed;
+
+    public static NavigationEvent begin(String url) {
+        NavigationEvent event = new NavigationEvent();
+        event.provider = ProviderContext.current();
+        event.url = url;
+        event.begin();
+        return event;
+    }
+
+    // Records the navigation around the given page load, also when it throws
+    public static void record(String url, Runnable navigation) {
+        NavigationEvent event = begin(url);
+        try {
+            navigation.run();
+        } catch (RuntimeException | Error e) {
+            event.failed = true;
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.jobmonitor.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.jobmonitor.Notify")
+@Label("Notify")
+@Category({"Job Monitor", "Notifier"})
+@Description("Delivery of one batch of jobs by a notifier")
+public class NotifyEvent extends Event {
+
+    @Label("Notifier")
+    public String notifier;
+
+    @Label("Jobs")
+    public int jobs;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    public static NotifyEvent begin(String notifier, int jobs) {
+        NotifyEvent event = new NotifyEvent();
+        event.notifier = notifier;
+        event.jobs = jobs;
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,53 @@
+package com.jobmonitor.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.function.BooleanSupplier;
+
+@Name("com.jobmonitor.Pagination")
+@Label("Pagination")
+@Category({"Job Monitor", "Selenium"})
+@Description("Moving a result list to its next page, waits for the new page included")
+public class PaginationEvent extends Event {
+
+    @Label("Provider")
+    public String provider;
+
+    // The listing being paged; the browser's current URL would cost another driver round trip
+    @Label("URL")
+    public String url;
+
+    @Label("Moved")
+    @Description("False when there was no next page")
+    public boolean moved;
+
+    @Label("Failed")
+    @Description("The driver threw while moving to the next page")
+    public boolean failed;
+
+    public static PaginationEvent begin(String url) {
+        PaginationEvent event = new PaginationEvent();
+        event.provider = ProviderContext.current();
+        event.url = url;
+        event.begin();
+        return event;
+    }
+
+    // Records the move to the next page, also when it throws; move returns false when there is no next page
+    public static boolean record(String url, BooleanSupplier move) {
+        PaginationEvent event = begin(url);
+        try {
+            event.moved = move.getAsBoolean();
+            return event.moved;
+        } catch (RuntimeException | Error e) {
+            event.failed = true;
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+}
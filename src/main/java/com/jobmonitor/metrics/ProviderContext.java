@@ -0,0 +1,37 @@
+package com.jobmonitor.metrics;
+
+// The provider the current thread works for, so shared code such as the job filter can label its metrics
+// without every call passing the name along. Set by the scheduler around a run; work a provider hands to
+// its own executors carries it over through wrap().
+public final class ProviderContext {
+
+    private static final String NONE = "none";
+    private static final ThreadLocal<String> CURRENT = ThreadLocal.withInitial(() -> NONE);
+
+    private ProviderContext() {
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    public static void set(String provider) {
+        CURRENT.set(provider);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static Runnable wrap(Runnable task) {
+        String provider = current();
+        return () -> {
+            set(provider);
+            try {
+                task.run();
+            } finally {
+                clear();
+            }
+        };
+    }
+}
@@ -0,0 +1,33 @@
+package com.jobmonitor.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.jobmonitor.ProviderRun")
+@Label("Provider Run")
+@Category("Job Monitor")
+@Description("One scheduled run of a provider, the other Job Monitor events of that run happen inside it")
+public class ProviderRunEvent extends Event {
+
+    @Label("Provider")
+    public String provider;
+
+    @Label("Jobs Fetched")
+    public int fetched;
+
+    @Label("Unseen Jobs")
+    public int unseen;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    public static ProviderRunEvent begin(String provider) {
+        ProviderRunEvent event = new ProviderRunEvent();
+        event.provider = provider;
+        event.begin();
+        return event;
+    }
+}
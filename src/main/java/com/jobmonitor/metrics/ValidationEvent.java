@@ -0,0 +1,32 @@
+package com.jobmonitor.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.jobmonitor.DescriptionValidation")
+@Label("Description Validation")
+@Category({"Job Monitor", "Filter"})
+@Description("Matching one job description against the filter terms")
+public class ValidationEvent extends Event {
+
+    @Label("Provider")
+    public String provider;
+
+    @Label("Description Length")
+    @Description("In characters")
+    public int length;
+
+    @Label("Valid")
+    public boolean valid;
+
+    public static ValidationEvent begin(String description) {
+        ValidationEvent event = new ValidationEvent();
+        event.provider = ProviderContext.current();
+        event.length = description == null ? 0 : description.length();
+        event.begin();
+        return event;
+    }
+}
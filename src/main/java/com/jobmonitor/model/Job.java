@@ -4,11 +4,22 @@ public class Job {
     private final String link;
     private final String title;
     private final String snippet;
+    private final String provider;
 
     public Job(String link, String title, String snippet) {
+        this(link, title, snippet, "");
+    }
+
+    public Job(String link, String title, String snippet, String provider) {
         this.link = link;
         this.title = title;
         this.snippet = snippet;
+        this.provider = provider;
+    }
+
+    // Copy tagged with the name of the provider that found it
+    public Job withProvider(String provider) {
+        return new Job(link, title, snippet, provider);
     }
 
     public String getLink() {
@@ -23,6 +34,10 @@ public class Job {
         return snippet;
     }
 
+    public String getProvider() {
+        return provider;
+    }
+
     public String toString() {
         return "Job{" +
                 "link='" + link + '\'' +
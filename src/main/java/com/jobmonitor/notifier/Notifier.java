@@ -5,4 +5,7 @@ import java.util.List;
 
 public interface Notifier {
     void notify(List<Job> jobs) throws Exception;
+
+    default void close() {
+    }
 }
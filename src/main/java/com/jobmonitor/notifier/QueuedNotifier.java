@@ -0,0 +1,249 @@
+package com.jobmonitor.notifier;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.jobmonitor.metrics.Metrics;
+import com.jobmonitor.metrics.NotifyEvent;
+import com.jobmonitor.model.Job;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Decouples a notifier from the pipeline: notify() only queues the jobs and returns, a worker thread
+// delivers them. Jobs arriving within batchMillis of each other go out as one notification.
+// Jobs are already stored as seen when they get here, so none may be lost: when the bounded queue is full,
+// or a delivery fails, the jobs go to a spill file next to the job storage. A failed delivery backs off
+// exponentially, new jobs are spilled meanwhile, and the spill is sent ahead of the next batch once the
+// backoff has passed. Jobs still queued on shutdown are spilled too and delivered after the next start.
+// A batch that failed halfway is sent again in full, so a job may arrive twice but is never lost.
+public class QueuedNotifier implements Notifier {
+
+    private static final long CLOSE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final long RETRY_BASE_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final long RETRY_MAX_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    // Stands for an empty notify() call, the "no new jobs" report
+    private static final Job EMPTY_REPORT = new Job("", "", "");
+
+    private final Notifier delegate;
+    private final String name;
+    private final long batchMillis;
+    private final BlockingQueue<Job> queue;
+    private final Path spillFile;
+    private final long retryBaseMillis;
+    private final AtomicInteger spilled = new AtomicInteger();
+    private final Thread worker;
+    private volatile boolean closed;
+
+    // Only used by the worker
+    private int failures;
+    private long retryAtMillis;
+
+    public QueuedNotifier(Notifier delegate, int capacity, long batchMillis, Path spillFile) {
+        this(delegate, capacity, batchMillis, spillFile, RETRY_BASE_MILLIS);
+    }
+
+    // retryBaseMillis lets tests run through the backoff without waiting minutes
+    QueuedNotifier(Notifier delegate, int capacity, long batchMillis, Path spillFile, long retryBaseMillis) {
+        this.delegate = delegate;
+        this.name = delegate.getClass().getSimpleName();
+        this.batchMillis = batchMillis;
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, capacity));
+        this.spillFile = spillFile;
+        this.retryBaseMillis = retryBaseMillis;
+
+        this.worker = new Thread(this::run, "notifier-" + name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @Override
+    public void notify(List<Job> jobs) {
+        if (jobs.isEmpty()) {
+            if (!closed) {
+                queue.offer(EMPTY_REPORT);
+            }
+            return;
+        }
+
+        List<Job> overflow = new ArrayList<>();
+        for (Job job : jobs) {
+            if (closed || !queue.offer(job)) {
+                overflow.add(job);
+            }
+        }
+        if (!overflow.isEmpty()) {
+            spilled.addAndGet(overflow.size());
+            spill(overflow);
+        }
+    }
+
+    // Delivers what is still queued, waiting at most CLOSE_TIMEOUT_MILLIS, and spills whatever is left
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            worker.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<Job> left = new ArrayList<>();
+        queue.drainTo(left);
+        left.removeIf(job -> job == EMPTY_REPORT);
+        if (!left.isEmpty()) {
+            spill(left);
+            System.err.println(name + ": " + left.size() + " queued job(s) saved to " + spillFile +
+                    ", they are sent after the next start");
+        }
+        delegate.close();
+    }
+
+    // Only close() ends the worker. An interrupt is logged and kept in mind rather than dropping the batch
+    // in hand, and set again once the worker is done.
+    private void run() {
+        boolean interrupted = false;
+        while (!closed || !queue.isEmpty()) {
+            List<Job> batch = new ArrayList<>();
+            try {
+                Job first = queue.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    // Give the rest of a burst a moment to arrive
+                    if (!closed && batchMillis > 0) {
+                        Thread.sleep(batchMillis);
+                    }
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+                if (!closed) {
+                    System.err.println(name + " worker interrupted, it keeps delivering until the notifier is closed");
+                }
+            }
+            queue.drainTo(batch);
+
+            int spilledJobs = spilled.getAndSet(0);
+            if (spilledJobs > 0) {
+                System.err.println(name + " queue full, " + spilledJobs + " job(s) saved to " + spillFile);
+            }
+
+            // An empty report is stale once jobs have arrived after it
+            boolean emptyReport = batch.removeIf(job -> job == EMPTY_REPORT);
+
+            if (System.currentTimeMillis() < retryAtMillis) {
+                spill(batch);
+                continue;
+            }
+            batch.addAll(0, takeSpilled());
+
+            if (!batch.isEmpty() || emptyReport) {
+                if (deliver(batch)) {
+                    failures = 0;
+                } else {
+                    spill(batch);
+                    failures++;
+                    long backoff = Math.min(RETRY_MAX_MILLIS, retryBaseMillis << Math.min(failures - 1, 10));
+                    retryAtMillis = System.currentTimeMillis() + backoff;
+                    if (!batch.isEmpty()) {
+                        System.err.println(name + ": " + batch.size() + " job(s) saved for a retry in " +
+                                TimeUnit.MILLISECONDS.toSeconds(backoff) + "s");
+                    }
+                }
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean deliver(List<Job> jobs) {
+        long startNanos = System.nanoTime();
+        NotifyEvent event = NotifyEvent.begin(name, jobs.size());
+        try {
+            delegate.notify(jobs);
+            event.succeeded = true;
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            Metrics.NOTIFY_ERRORS.labels(name).increment();
+            System.err.println("Error sending notification via " + name + ": " + e.getMessage());
+            return false;
+        } finally {
+            Metrics.NOTIFY_SECONDS.labels(name).recordSince(startNanos);
+            event.commit();
+        }
+    }
+
+    // One JSON object per line
+    private synchronized void spill(List<Job> jobs) {
+        if (jobs.isEmpty()) {
+            return;
+        }
+        Metrics.NOTIFY_SPILLED.labels(name).add(jobs.size());
+
+        try {
+            Files.createDirectories(spillFile.toAbsolutePath().getParent());
+        } catch (IOException e) {
+            // Reported by the write below
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Job job : jobs) {
+                JsonObject line = new JsonObject();
+                line.addProperty("link", orEmpty(job.getLink()));
+                line.addProperty("title", orEmpty(job.getTitle()));
+                line.addProperty("snippet", orEmpty(job.getSnippet()));
+                line.addProperty("provider", orEmpty(job.getProvider()));
+                writer.write(line.toString());
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            System.err.println(name + ": unable to save " + jobs.size() + " undelivered job(s) to " + spillFile +
+                    ": " + e.getMessage());
+        }
+    }
+
+    private synchronized List<Job> takeSpilled() {
+        List<Job> jobs = new ArrayList<>();
+        if (!Files.exists(spillFile)) {
+            return jobs;
+        }
+
+        try {
+            for (String line : Files.readAllLines(spillFile, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    JsonObject job = JsonParser.parseString(line).getAsJsonObject();
+                    jobs.add(new Job(job.get("link").getAsString(), job.get("title").getAsString(),
+                            job.get("snippet").getAsString(), job.get("provider").getAsString()));
+                } catch (RuntimeException e) {
+                    System.err.println(name + ": skipping unreadable line in " + spillFile);
+                }
+            }
+            Files.delete(spillFile);
+        } catch (IOException e) {
+            System.err.println(name + ": unable to read " + spillFile + ": " + e.getMessage());
+            return new ArrayList<>();
+        }
+        return jobs;
+    }
+
+    private static String orEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
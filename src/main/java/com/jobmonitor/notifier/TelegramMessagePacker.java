@@ -0,0 +1,86 @@
+package com.jobmonitor.notifier;
+
+import com.jobmonitor.model.Job;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Packs jobs into as few Telegram messages as fit the message length limit, in order.
+// Plain text lists title and link on separate lines; compact HTML turns the title into the link.
+// Telegram counts the limit on the text left after parsing the markup, so a link costs nothing in HTML
+// and a message holds about twice as many jobs.
+final class TelegramMessagePacker {
+
+    // Telegram's limit on the text of one message, in UTF-16 code units
+    static final int MAX_MESSAGE_LENGTH = 4096;
+
+    private final boolean html;
+    private final int maxLength;
+
+    TelegramMessagePacker(boolean html) {
+        this(html, MAX_MESSAGE_LENGTH);
+    }
+
+    TelegramMessagePacker(boolean html, int maxLength) {
+        this.html = html;
+        this.maxLength = maxLength;
+    }
+
+    boolean isHtml() {
+        return html;
+    }
+
+    List<String> pack(List<Job> jobs) {
+        List<String> messages = new ArrayList<>();
+        String header = "Found " + jobs.size() + " new jobs";
+        StringBuilder message = new StringBuilder(html ? "<b>" + header + "</b>\n\n" : header + "\n\n");
+        int length = header.length() + 2;
+
+        for (int i = 0; i < jobs.size(); i++) {
+            Job job = jobs.get(i);
+            String title = truncate(job.getTitle(), i + 1, job.getLink());
+            String entry;
+            int entryLength;
+            if (html) {
+                entry = (i + 1) + ". <a href=\"" + escape(job.getLink()) + "\">" + escape(title) + "</a>\n";
+                entryLength = (i + 1 + ". " + title + "\n").length();
+            } else {
+                entry = (i + 1) + ". " + title + "\n" + job.getLink() + "\n\n";
+                entryLength = entry.length();
+            }
+
+            if (length > 0 && length + entryLength > maxLength) {
+                messages.add(message.toString().strip());
+                message.setLength(0);
+                length = 0;
+            }
+            message.append(entry);
+            length += entryLength;
+        }
+        if (message.length() > 0) {
+            messages.add(message.toString().strip());
+        }
+        return messages;
+    }
+
+    // Only a pathological title gets cut, whatever is left of the link has to fit one message with it
+    private String truncate(String title, int index, String link) {
+        int room = maxLength - (index + ". \n").length() - (html ? 0 : link.length() + 2);
+        if (title.length() <= room) {
+            return title;
+        }
+        // Cut the unescaped title, so no entity is split, and never between the halves of a surrogate pair
+        int cut = Math.max(0, room - 3);
+        if (cut > 0 && Character.isHighSurrogate(title.charAt(cut - 1))) {
+            cut--;
+        }
+        return title.substring(0, cut) + "...";
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;")
+                .replace("\"", "&quot;");
+    }
+}
@@ -1,5 +1,10 @@
 package com.jobmonitor.notifier;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.jobmonitor.http.HttpClients;
+import com.jobmonitor.http.HttpStatusException;
 import com.jobmonitor.model.Job;
 import java.net.URI;
 import java.net.URLEncoder;
@@ -7,64 +12,126 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 public class TelegramNotifier implements Notifier {
-    private static final int CHUNK_SIZE = 10;
     private static final String TELEGRAM_API = "https://api.telegram.org/bot";
-    
+    // Telegram allows about one message per second in a private chat and 20 per minute in a group
+    private static final long PRIVATE_CHAT_INTERVAL_MILLIS = 1100;
+    private static final long GROUP_CHAT_INTERVAL_MILLIS = 3100;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long DEFAULT_RETRY_AFTER_SECONDS = 5;
+
     private final String botToken;
     private final String chatId;
     private final HttpClient httpClient;
+    private final TelegramMessagePacker packer;
+    private final long messageIntervalMillis;
+
+    // Guarded by this
+    private long nextSendMillis;
 
-    public TelegramNotifier(String botToken, String chatId) {
+    public TelegramNotifier(String botToken, String chatId, boolean html) {
         this.botToken = botToken;
         this.chatId = chatId;
-        this.httpClient = HttpClient.newHttpClient();
+        this.httpClient = HttpClients.shared();
+        this.packer = new TelegramMessagePacker(html);
+        // Group and channel ids are negative
+        this.messageIntervalMillis = chatId != null && chatId.startsWith("-")
+                ? GROUP_CHAT_INTERVAL_MILLIS
+                : PRIVATE_CHAT_INTERVAL_MILLIS;
     }
 
+    // Messages are chained: each one is sent in its rate limit slot once the previous one was accepted,
+    // so a message retried after a 429 still arrives before the ones behind it, and a failure stops the rest.
+    // The response usually comes back well within the slot interval, so this costs little over pipelining.
+    // Calls are not chained to each other, QueuedNotifier makes them one at a time.
     @Override
     public void notify(List<Job> jobs) throws Exception {
+        List<String> messages = jobs.isEmpty() ? List.of("No new jobs") : packer.pack(jobs);
 
-        if (jobs.size() == 0) {
-            sendMessage("No new jobs");
-            return;
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+        CompletableFuture<Void> previous = CompletableFuture.completedFuture(null);
+        for (String message : messages) {
+            previous = previous.thenCompose(ignored -> sendMessage(message, 1));
+            sends.add(previous);
         }
 
-        sendMessage("Found " + jobs.size() + " new jobs\n\n");
-
-        int currentIndex = 1;
-        for (int i = 0; i < jobs.size(); i += CHUNK_SIZE) {
-            List<Job> chunk = jobs.subList(i, Math.min(i + CHUNK_SIZE, jobs.size()));
-            String message = formatMessage(chunk, currentIndex);
-            sendMessage(message);
-            currentIndex += chunk.size();
+        try {
+            HttpClients.await(previous);
+        } finally {
+            sends.forEach(send -> send.cancel(true));
         }
+    }
 
+    private CompletableFuture<Void> sendMessage(String text, int attempt) {
+        long delay = reserveSlot(0);
+        return CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS))
+                .thenCompose(ignored -> httpClient.sendAsync(request(text), HttpResponse.BodyHandlers.ofString()))
+                .thenCompose(response -> {
+                    if (response.statusCode() == 200) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    if (response.statusCode() != 429 || attempt >= MAX_ATTEMPTS) {
+                        throw new HttpStatusException("Telegram sendMessage", response.statusCode());
+                    }
+
+                    long retryAfter = retryAfterSeconds(response);
+                    System.err.println("Telegram rate limit hit, retrying in " + retryAfter + "s");
+                    reserveSlot(TimeUnit.SECONDS.toMillis(retryAfter));
+                    return sendMessage(text, attempt + 1);
+                });
     }
 
-    private String formatMessage(List<Job> jobs, int startIndex) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < jobs.size(); i++) {
-            Job job = jobs.get(i);
-            sb.append(startIndex + i).append(". ").append(job.getTitle()).append("\n");
-            sb.append(job.getLink()).append("\n\n");
+    // Milliseconds until the next free send slot, which is then taken; pause pushes every later slot back
+    private synchronized long reserveSlot(long pauseMillis) {
+        long now = System.currentTimeMillis();
+        if (pauseMillis > 0) {
+            nextSendMillis = Math.max(nextSendMillis, now + pauseMillis);
+            return 0;
         }
-        
-        return sb.toString();
+        long slot = Math.max(now, nextSendMillis);
+        nextSendMillis = slot + messageIntervalMillis;
+        return slot - now;
     }
 
-    private void sendMessage(String text) throws Exception {
+    private HttpRequest request(String text) {
         String url = TELEGRAM_API + botToken + "/sendMessage";
         String encodedText = URLEncoder.encode(text, StandardCharsets.UTF_8);
-        String requestBody = "chat_id=" + chatId + "&text=" + encodedText;
+        String requestBody = "chat_id=" + chatId + "&text=" + encodedText +
+                (packer.isHtml() ? "&parse_mode=HTML&disable_web_page_preview=true" : "");
 
-        HttpRequest request = HttpRequest.newBuilder()
+        return HttpRequest.newBuilder()
                 .uri(URI.create(url))
+                .timeout(HttpClients.REQUEST_TIMEOUT)
                 .header("Content-Type", "application/x-www-form-urlencoded")
                 .POST(HttpRequest.BodyPublishers.ofString(requestBody))
                 .build();
+    }
 
-        httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    // From the error body ({"parameters":{"retry_after":N}}) or the Retry-After header
+    private static long retryAfterSeconds(HttpResponse<String> response) {
+        try {
+            JsonObject parameters = JsonParser.parseString(response.body()).getAsJsonObject()
+                    .getAsJsonObject("parameters");
+            JsonElement retryAfter = parameters == null ? null : parameters.get("retry_after");
+            if (retryAfter != null) {
+                return retryAfter.getAsLong();
+            }
+        } catch (RuntimeException e) {
+            // Not the usual error body, try the header
+        }
+        return response.headers().firstValue("Retry-After")
+                .map(value -> {
+                    try {
+                        return Long.parseLong(value.trim());
+                    } catch (NumberFormatException e) {
+                        return DEFAULT_RETRY_AFTER_SECONDS;
+                    }
+                })
+                .orElse(DEFAULT_RETRY_AFTER_SECONDS);
     }
 }
@@ -1,5 +1,6 @@
 package com.jobmonitor.selenium;
 
+import com.jobmonitor.metrics.BrowserStartEvent;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
@@ -14,6 +15,8 @@ import java.time.Duration;
 
 public class WebDriverFactory {
 
+    static final Duration IMPLICIT_WAIT = Duration.ofSeconds(20);
+
     private WebDriverFactory() {
         throw new UnsupportedOperationException("Utility class");
     }
@@ -26,6 +29,10 @@ public class WebDriverFactory {
     }
 
     public static WebDriver createDriver(BrowserType browserType, boolean headless) {
+        return BrowserStartEvent.record(browserType.name(), () -> startDriver(browserType, headless));
+    }
+
+    private static WebDriver startDriver(BrowserType browserType, boolean headless) {
         WebDriver driver;
 
         switch (browserType) {
@@ -59,9 +66,7 @@ public class WebDriverFactory {
             }
             default -> throw new IllegalArgumentException("Unsupported browser type: " + browserType);
         }
-
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(20));
-
+        driver.manage().timeouts().implicitlyWait(IMPLICIT_WAIT);
         return driver;
     }
 }
\ No newline at end of file
@@ -0,0 +1,223 @@
+package com.jobmonitor.selenium;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Keeps warm browser sessions across cycles so each scraper does not pay a full browser start.
+// At most maxSize sessions exist at once, idle or checked out.
+// Closing the pool quits every session, also those still checked out: a scraper still using one fails
+// rather than leaving a browser process behind once the application exits.
+public class WebDriverPool implements AutoCloseable {
+
+    private static final String BLANK_PAGE = "about:blank";
+    private static final String CLEAR_STORAGE_SCRIPT =
+            "try { window.localStorage.clear(); } catch (e) {}" +
+            "try { window.sessionStorage.clear(); } catch (e) {}";
+
+    private final Supplier<WebDriver> driverFactory;
+    private final Duration maxAge;
+    private final Semaphore permits;
+
+    private final Deque<PooledSession> idle = new ArrayDeque<>();
+    private final Map<WebDriver, PooledSession> leased = new IdentityHashMap<>();
+    private boolean closed;
+
+    public WebDriverPool(BrowserType browserType, int maxSize, Duration maxAge) {
+        this(() -> WebDriverFactory.createDriver(browserType), maxSize, maxAge);
+    }
+
+    // driverFactory lets tests pool stub sessions instead of starting browsers
+    WebDriverPool(Supplier<WebDriver> driverFactory, int maxSize, Duration maxAge) {
+        this.driverFactory = driverFactory;
+        this.maxAge = maxAge;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    // Blocks until a session is available
+    public WebDriver checkout() throws InterruptedException {
+        permits.acquire();
+        return leaseOrRelease();
+    }
+
+    // Returns null when the pool is exhausted for longer than the given timeout
+    public WebDriver tryCheckout(Duration timeout) throws InterruptedException {
+        if (!permits.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            return null;
+        }
+        return leaseOrRelease();
+    }
+
+    public void checkin(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+
+        PooledSession session;
+        synchronized (this) {
+            session = leased.remove(driver);
+        }
+        if (session == null) {
+            // Not one of ours, or already quit by close()
+            quietlyQuit(driver);
+            return;
+        }
+
+        try {
+            if (isExpired(session) || !reset(driver)) {
+                quietlyQuit(driver);
+                return;
+            }
+
+            synchronized (this) {
+                if (!closed) {
+                    idle.push(session);
+                    return;
+                }
+            }
+            quietlyQuit(driver);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // For a session that may still be in use elsewhere: quits it instead of handing it out again
+    public void discard(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+
+        PooledSession session;
+        synchronized (this) {
+            session = leased.remove(driver);
+        }
+        quietlyQuit(driver);
+        if (session != null) {
+            permits.release();
+        }
+    }
+
+    @Override
+    public void close() {
+        List<PooledSession> sessions;
+        synchronized (this) {
+            closed = true;
+            sessions = new ArrayList<>(idle);
+            sessions.addAll(leased.values());
+            idle.clear();
+            leased.clear();
+        }
+        for (PooledSession session : sessions) {
+            quietlyQuit(session.driver);
+        }
+    }
+
+    private WebDriver leaseOrRelease() {
+        try {
+            PooledSession session = takeHealthyIdle();
+            if (session == null) {
+                session = new PooledSession(driverFactory.get(), System.nanoTime());
+            }
+
+            synchronized (this) {
+                if (closed) {
+                    quietlyQuit(session.driver);
+                    throw new IllegalStateException("WebDriver pool is closed");
+                }
+                leased.put(session.driver, session);
+            }
+            return session.driver;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledSession takeHealthyIdle() {
+        while (true) {
+            PooledSession session;
+            synchronized (this) {
+                session = idle.poll();
+            }
+            if (session == null) {
+                return null;
+            }
+            if (!isExpired(session) && isHealthy(session.driver)) {
+                return session;
+            }
+            quietlyQuit(session.driver);
+        }
+    }
+
+    private boolean isExpired(PooledSession session) {
+        return System.nanoTime() - session.createdAt > maxAge.toNanos();
+    }
+
+    private boolean isHealthy(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    // Brings a session back to a clean state: one window, no cookies or storage, blank page
+    private boolean reset(WebDriver driver) {
+        try {
+            String mainWindow = closeExtraWindows(driver);
+            driver.switchTo().window(mainWindow);
+
+            if (driver instanceof JavascriptExecutor) {
+                ((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE_SCRIPT);
+            }
+            driver.manage().deleteAllCookies();
+            driver.manage().timeouts().implicitlyWait(WebDriverFactory.IMPLICIT_WAIT);
+            driver.get(BLANK_PAGE);
+            return true;
+        } catch (WebDriverException e) {
+            System.err.println("Discarding browser session: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private String closeExtraWindows(WebDriver driver) {
+        List<String> handles = new ArrayList<>(driver.getWindowHandles());
+        String mainWindow = handles.get(0);
+
+        for (String handle : handles.subList(1, handles.size())) {
+            driver.switchTo().window(handle);
+            driver.close();
+        }
+        return mainWindow;
+    }
+
+    private static void quietlyQuit(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (WebDriverException e) {
+            System.err.println("Error closing browser session: " + e.getMessage());
+        }
+    }
+
+    private static class PooledSession {
+        private final WebDriver driver;
+        private final long createdAt;
+
+        private PooledSession(WebDriver driver, long createdAt) {
+            this.driver = driver;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.jobmonitor.service;
+
+import com.jobmonitor.config.AppConfig;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// When the monitor may work: every day outside the quiet hours (which may wrap past midnight),
+// and never on quiet days. Times are taken in the configured zone, so DST changes move with the wall clock.
+public class ActiveWindow {
+
+    private final LocalTime quietStart;
+    private final Duration quietLength;
+    private final Set<DayOfWeek> quietDays;
+    private final ZoneId zone;
+
+    public ActiveWindow(LocalTime quietStart, Duration quietLength, Set<DayOfWeek> quietDays, ZoneId zone) {
+        this.quietStart = quietStart;
+        this.quietLength = quietLength;
+        this.quietDays = quietDays.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(quietDays);
+        this.zone = zone;
+    }
+
+    public static ActiveWindow from(AppConfig config) {
+        return new ActiveWindow(
+                LocalTime.of(config.getSleepHour(), 0),
+                Duration.ofHours(config.getSleepTimeHours()),
+                parseDays(config.getQuietDays()),
+                config.getQuietZone().isEmpty() ? ZoneId.systemDefault() : ZoneId.of(config.getQuietZone())
+        );
+    }
+
+    public boolean isActive(Instant now) {
+        return nextActive(now).equals(now);
+    }
+
+    // now itself when active, otherwise when the current quiet period ends
+    public Instant nextActive(Instant now) {
+        ZonedDateTime time = now.atZone(zone);
+
+        // A quiet day can run into quiet hours and back, a week of steps covers every combination
+        for (int step = 0; step < 16; step++) {
+            if (quietDays.contains(time.getDayOfWeek())) {
+                time = time.toLocalDate().plusDays(1).atStartOfDay(zone);
+                continue;
+            }
+            ZonedDateTime quietEnd = quietPeriodEnd(time);
+            if (quietEnd == null) {
+                return time.toInstant();
+            }
+            time = quietEnd;
+        }
+        return time.toInstant();
+    }
+
+    // End of the quiet hours time falls in (those started today or, wrapping past midnight, yesterday), or null
+    private ZonedDateTime quietPeriodEnd(ZonedDateTime time) {
+        if (quietLength.isZero() || quietLength.isNegative()) {
+            return null;
+        }
+        for (int daysBack = 0; daysBack <= 1; daysBack++) {
+            ZonedDateTime start = time.toLocalDate().minusDays(daysBack).atTime(quietStart).atZone(zone);
+            ZonedDateTime end = start.plus(quietLength);
+            if (!time.isBefore(start) && time.isBefore(end)) {
+                return end;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        String hours = quietLength.isZero() ? "no quiet hours" :
+                "quiet from " + quietStart + " for " + quietLength.toHours() + "h";
+        return hours + (quietDays.isEmpty() ? "" : ", quiet on " + quietDays) + " (" + zone + ")";
+    }
+
+    // Full names or any prefix of at least three letters, e.g. "sat" or "Saturday"
+    private static Set<DayOfWeek> parseDays(List<String> names) {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (String name : names) {
+            String prefix = name.trim().toUpperCase(Locale.ROOT);
+            boolean matched = false;
+            for (DayOfWeek day : DayOfWeek.values()) {
+                if (prefix.length() >= 3 && day.name().startsWith(prefix)) {
+                    days.add(day);
+                    matched = true;
+                }
+            }
+            if (!matched) {
+                System.err.println("Ignoring unknown quiet day: " + name);
+            }
+        }
+        return days;
+    }
+}
@@ -0,0 +1,53 @@
+package com.jobmonitor.service;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+// 64-bit hashes for link and text fingerprints: FNV-1a (text) or a murmur3-style word loop (bytes) followed
+// by the murmur3 finalizer, so every input bit affects every output bit. Never persisted, so free to change.
+final class Fingerprints {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private Fingerprints() {
+    }
+
+    // Eight bytes per step, a multiply per byte made this the slowest part of a link lookup
+    static long hash64(byte[] bytes) {
+        long hash = FNV_OFFSET ^ bytes.length;
+        int i = 0;
+        for (; i + Long.BYTES <= bytes.length; i += Long.BYTES) {
+            hash = (Long.rotateLeft(hash ^ mixWord((long) LONGS.get(bytes, i)), 27) * 5) + 0x52dce729;
+        }
+        long tail = 0;
+        for (int shift = 0; i < bytes.length; i++, shift += 8) {
+            tail |= (bytes[i] & 0xffL) << shift;
+        }
+        return mix(hash ^ mixWord(tail));
+    }
+
+    static long hash64(CharSequence text, int start, int end) {
+        long hash = FNV_OFFSET;
+        for (int i = start; i < end; i++) {
+            hash ^= text.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    private static long mixWord(long word) {
+        return Long.rotateLeft(word * 0x87c37b91114253d5L, 31) * 0x4cf5ad432745937fL;
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb3fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,139 @@
+package com.jobmonitor.service;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.jobmonitor.model.Job;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+// One Custom Search result page, read in a single pass with a JsonReader: only the item fields and the
+// query metadata GoogleSearchService uses are kept, everything else is skipped without building a tree
+final class GoogleResultPage {
+
+    final List<Job> jobs = new ArrayList<>();
+    boolean hasItems;
+    boolean hasNextPage;
+    boolean hasRequest;
+    // -1 when the response does not say
+    long totalResults = -1;
+    String searchTerms;
+    String excludeTerms;
+
+    private GoogleResultPage() {
+    }
+
+    // Jobs whose title the filter rejects are dropped while reading
+    static GoogleResultPage parse(Reader json, Predicate<String> titleFilter) throws IOException {
+        GoogleResultPage page = new GoogleResultPage();
+        try (JsonReader reader = new JsonReader(json)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "items":
+                        page.readItems(reader, titleFilter);
+                        break;
+                    case "queries":
+                        page.readQueries(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        return page;
+    }
+
+    private void readItems(JsonReader reader, Predicate<String> titleFilter) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            hasItems = true;
+            String link = null;
+            String title = null;
+            String snippet = "";
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "link":
+                        link = nextString(reader);
+                        break;
+                    case "title":
+                        title = nextString(reader);
+                        break;
+                    case "snippet":
+                        snippet = nextString(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            if (link != null && title != null && titleFilter.test(title)) {
+                jobs.add(new Job(link, title, snippet == null ? "" : snippet));
+            }
+        }
+        reader.endArray();
+    }
+
+    private void readQueries(JsonReader reader) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "nextPage":
+                    hasNextPage = true;
+                    reader.skipValue();
+                    break;
+                case "request":
+                    readRequest(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    // Only the first request entry describes this search
+    private void readRequest(JsonReader reader) throws IOException {
+        reader.beginArray();
+        if (reader.hasNext()) {
+            hasRequest = true;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "searchTerms":
+                        searchTerms = nextString(reader);
+                        break;
+                    case "excludeTerms":
+                        excludeTerms = nextString(reader);
+                        break;
+                    case "totalResults":
+                        // Sent as a string, nextLong() reads both forms
+                        totalResults = reader.nextLong();
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        while (reader.hasNext()) {
+            reader.skipValue();
+        }
+        reader.endArray();
+    }
+
+    private static String nextString(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+}
@@ -1,59 +1,162 @@
 package com.jobmonitor.service;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.jobmonitor.config.AppConfig;
+import com.jobmonitor.http.CachedResponse;
+import com.jobmonitor.http.HttpCache;
+import com.jobmonitor.http.HttpClients;
+import com.jobmonitor.http.HttpStatusException;
 import com.jobmonitor.model.Job;
+import java.io.IOException;
+import java.io.StringReader;
 import java.net.URI;
 import java.net.URLEncoder;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 public class GoogleSearchService implements JobsProvider {
     private static final String BASE_URL = "https://www.googleapis.com/customsearch/v1";
     private static final int MAX_PAGES = 10;
+    // Pages requested ahead of the one being read
+    private static final int PREFETCH_PAGES = 3;
+    // The Custom Search quota resets at midnight Pacific time
+    private static final ZoneId QUOTA_ZONE = ZoneId.of("America/Los_Angeles");
+    private static final String BUDGET_FILE = "google-budget.txt";
+    
+    private static final int RESULTS_PER_PAGE = 10;
     
     private final AppConfig config;
-    private final HttpClient httpClient;
+    private final HttpCache httpCache;
     private final JobFilter jobFilter;
+    private final RequestBudget requestBudget;
+    private final String baseUrl;
+
+    public GoogleSearchService(AppConfig config, JobFilter jobFilter, HttpCache httpCache) {
+        this(config, jobFilter, httpCache, BASE_URL, new RequestBudget(config.getGoogleDailyRequestLimit(), QUOTA_ZONE,
+                Paths.get(config.getStorageDirectory(), BUDGET_FILE)));
+    }
 
-    public GoogleSearchService(AppConfig config, JobFilter jobFilter) {
+    // baseUrl and requestBudget let tests run against a local server
+    GoogleSearchService(AppConfig config, JobFilter jobFilter, HttpCache httpCache, String baseUrl,
+                        RequestBudget requestBudget) {
         this.config = config;
         this.jobFilter = jobFilter;
-        this.httpClient = HttpClient.newHttpClient();
+        this.httpCache = httpCache;
+        this.baseUrl = baseUrl;
+        this.requestBudget = requestBudget;
+    }
+
+    @Override
+    public String getName() {
+        return "google";
     }
 
     @Override
     public List<Job> fetchJobs() throws Exception {
         List<Job> allJobs = new ArrayList<>();
-        
+        streamJobs(SeenLinks.NONE, allJobs::add);
+        return allJobs;
+    }
+
+    // Results are ranked by relevance rather than date, so seenLinks cannot end paging early;
+    // each page is still delivered as soon as it is parsed
+    @Override
+    public void streamJobs(SeenLinks seenLinks, JobSink sink) throws Exception {
+        if (config.isGoogleConcurrentPages()) {
+            streamPagesConcurrently(sink);
+            return;
+        }
+
         for (int page = 1; page <= MAX_PAGES; page++) {
             String url = buildApiUrl(page);
+            if (!acquireRequest(url)) {
+                break;
+            }
+
+            GoogleResultPage results = parsePage(executeRequest(url));
 
-            String response = executeRequest(url);
-            
-            JsonObject json = JsonParser.parseString(response).getAsJsonObject();
-            
             if (page == 1) {
-                logSearchInfo(json);
+                logSearchInfo(results);
             }
-            
-            List<Job> jobs = parseJobs(json);
-            allJobs.addAll(jobs);
-            
-            if (!hasNextPage(json)) {
+
+            results.jobs.forEach(sink::accept);
+
+            if (!results.hasNextPage) {
                 break;
             }
         }
-        allJobs = jobFilter.filterByTitle(allJobs);
-        
-        return allJobs;
+    }
+
+    // The first page tells how many results exist, the remaining pages are then requested concurrently
+    // and handled in order, stopping at the first page without items or without a next page.
+    // totalResults is only Google's estimate and often runs past the real last page, so the pages are requested
+    // PREFETCH_PAGES at a time ahead of the one being read: the budget is charged before a request is sent, and
+    // at most PREFETCH_PAGES sent requests can turn out unneeded, pages further on are never requested.
+    private void streamPagesConcurrently(JobSink sink) throws Exception {
+        String firstUrl = buildApiUrl(1);
+        if (!acquireRequest(firstUrl)) {
+            return;
+        }
+
+        GoogleResultPage firstPage = parsePage(executeRequest(firstUrl));
+        logSearchInfo(firstPage);
+        firstPage.jobs.forEach(sink::accept);
+
+        if (!firstPage.hasItems || !firstPage.hasNextPage) {
+            return;
+        }
+
+        Deque<CompletableFuture<String>> pages = new ArrayDeque<>();
+        int lastPage = Math.min(MAX_PAGES, pageCount(firstPage));
+        int nextPage = 2;
+        try {
+            while (true) {
+                while (pages.size() < PREFETCH_PAGES && nextPage <= lastPage) {
+                    String url = buildApiUrl(nextPage);
+                    if (!acquireRequest(url)) {
+                        lastPage = nextPage - 1;
+                        break;
+                    }
+                    pages.add(executeRequestAsync(url));
+                    nextPage++;
+                }
+
+                CompletableFuture<String> page = pages.poll();
+                if (page == null) {
+                    break;
+                }
+                GoogleResultPage results = parsePage(HttpClients.await(page));
+
+                if (!results.hasItems) {
+                    break;
+                }
+                results.jobs.forEach(sink::accept);
+
+                if (!results.hasNextPage) {
+                    break;
+                }
+            }
+        } finally {
+            pages.forEach(page -> page.cancel(true));
+        }
+    }
+
+    // Every page takes a request from the budget up front, so the quota holds however the cache answers.
+    // A page the cache then answers without a request gives it back (see refundUnsent), which also means
+    // no page is read once the budget is used up, not even one the cache could still answer.
+    private boolean acquireRequest(String url) {
+        if (requestBudget.tryAcquire()) {
+            return true;
+        }
+        System.err.println("Google daily request budget of " + config.getGoogleDailyRequestLimit() + " used up");
+        return false;
     }
 
     private String buildApiUrl(int page) {
@@ -74,17 +177,17 @@ public class GoogleSearchService implements JobsProvider {
         String full_query = searchQuery + " " + exclusionString;
 
 
-        int startIndex = (page - 1) * 10 + 1;
+        int startIndex = (page - 1) * RESULTS_PER_PAGE + 1;
 
 
-        return BASE_URL + "?" +
+        return baseUrl + "?" +
                 "q=" + encode(full_query) +
                 //"&excludeTerms=" + encode(excludedTerms) +
                 "&gl=" + config.getCountryCode() +
                 "&cx=" + config.getSearchEngineId() +
                 "&key=" + config.getApiKey() +
                 "&start=" + startIndex +
-                "&fields=" + encode("items(title,link,snippet),queries(nextPage,request(searchTerms,excludeTerms))");
+                "&fields=" + encode("items(title,link,snippet),queries(nextPage,request(searchTerms,excludeTerms,totalResults))");
     }
 
     private List<String> WrapQuote(List<String> strings) {
@@ -108,54 +211,65 @@ public class GoogleSearchService implements JobsProvider {
     private String executeRequest(String url) throws Exception {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(url))
+                .timeout(HttpClients.REQUEST_TIMEOUT)
                 .GET()
                 .build();
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        CachedResponse response = refundUnsent(httpCache.send(request));
         
         if (response.statusCode() != 200) {
-            throw new RuntimeException("API request failed with status: " + response.statusCode());
+            throw new HttpStatusException("API request", response.statusCode());
         }
         
         return response.body();
     }
 
-    private List<Job> parseJobs(JsonObject json) {
-        List<Job> jobs = new ArrayList<>();
-        
-        if (!json.has("items")) {
-            return jobs;
-        }
-        
-        JsonArray items = json.getAsJsonArray("items");
-        for (int i = 0; i < items.size(); i++) {
-            JsonObject item = items.get(i).getAsJsonObject();
-            String link = item.get("link").getAsString();
-            String title = item.get("title").getAsString();
-            String snippet = item.get("snippet").getAsString();
-            
-            jobs.add(new Job(link, title, snippet));
+    private CompletableFuture<String> executeRequestAsync(String url) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(HttpClients.REQUEST_TIMEOUT)
+                .GET()
+                .build();
+
+        return httpCache.sendAsync(request)
+                .thenApply(this::refundUnsent)
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new HttpStatusException("API request", response.statusCode());
+                    }
+                    return response.body();
+                });
+    }
+
+    // Decided by the cache when it answers, so an entry going stale meanwhile is still charged
+    private CachedResponse refundUnsent(CachedResponse response) {
+        if (!response.wasSent()) {
+            requestBudget.release();
         }
-        
-        return jobs;
+        return response;
     }
 
-    private boolean hasNextPage(JsonObject json) {
-        return json.has("queries") && 
-               json.getAsJsonObject("queries").has("nextPage");
+    // Title filtering happens while reading, so rejected items never become Job objects
+    private GoogleResultPage parsePage(String body) throws IOException {
+        return GoogleResultPage.parse(new StringReader(body), jobFilter::acceptsTitle);
     }
 
-    private void logSearchInfo(JsonObject json) {
-        if (json.has("queries") && json.getAsJsonObject("queries").has("request")) {
-            JsonObject request = json.getAsJsonObject("queries")
-                    .getAsJsonArray("request")
-                    .get(0)
-                    .getAsJsonObject();
-            
-            System.out.println("Search terms: " + request.get("searchTerms").getAsString());
-            if (request.has("excludeTerms")) {
-                System.out.println("Excluded terms: " + request.get("excludeTerms").getAsString());
-            }
+    private int pageCount(GoogleResultPage page) {
+        if (!page.hasRequest) {
+            return 1;
+        }
+        if (page.totalResults < 0) {
+            return MAX_PAGES;
+        }
+        return (int) Math.min(MAX_PAGES, (page.totalResults + RESULTS_PER_PAGE - 1) / RESULTS_PER_PAGE);
+    }
+
+    private void logSearchInfo(GoogleResultPage page) {
+        if (page.searchTerms != null) {
+            System.out.println("Search terms: " + page.searchTerms);
+        }
+        if (page.excludeTerms != null) {
+            System.out.println("Excluded terms: " + page.excludeTerms);
         }
     }
 
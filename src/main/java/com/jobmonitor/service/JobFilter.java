@@ -1,32 +1,60 @@
 package com.jobmonitor.service;
 
 import com.jobmonitor.config.AppConfig;
+import com.jobmonitor.metrics.Metrics;
+import com.jobmonitor.metrics.ProviderContext;
+import com.jobmonitor.metrics.ValidationEvent;
 import com.jobmonitor.model.Job;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 public class JobFilter {
 
+    private static final int POSITION = 0;
+    private static final int LEVEL = 1;
+    private static final int EXCLUDED = 2;
+
+    private static final int VALID_DESCRIPTION = (1 << POSITION) | (1 << LEVEL);
+
     private final AppConfig appConfig;
-    private final List<String> excludedTitleTerms;
+    private final TermMatcher titleMatcher;
+    private final TermMatcher descriptionMatcher;
 
     public JobFilter(AppConfig appConfig) {
         this.appConfig = appConfig;
 
-        this.excludedTitleTerms = new ArrayList<>(this.appConfig.getExcludedTitleTerms());
-
+        this.titleMatcher = TermMatcher.builder()
+                .add(EXCLUDED, appConfig.getExcludedTitleTerms())
+                .wholeWords(appConfig.isFilterWholeWords())
+                .build();
+
+        this.descriptionMatcher = TermMatcher.builder()
+                .add(POSITION, appConfig.getPositions())
+                .add(LEVEL, appConfig.getLevels())
+                .add(EXCLUDED, appConfig.getExcludedPageTerms())
+                .wholeWords(appConfig.isFilterWholeWords())
+                .build();
     }
 
     public List<Job> filterByTitle(List<Job> jobs) {
         return jobs.stream()
-                .filter(job -> !containsExcludedTerm(job.getTitle()))
+                .filter(job -> acceptsTitle(job.getTitle()))
                 .collect(Collectors.toList());
     }
 
-    public List<Job> filterNewJobs(List<Job> newJobs, Set<String> oldJobsLinks) {
+    // The per-job check behind filterByTitle, for parsers that filter while reading
+    public boolean acceptsTitle(String title) {
+        String provider = ProviderContext.current();
+        Metrics.TITLES_CHECKED.labels(provider).increment();
+        boolean accepted = !containsExcludedTerm(title);
+        if (accepted) {
+            Metrics.TITLES_PASSED.labels(provider).increment();
+        }
+        return accepted;
+    }
+
+    public List<Job> filterNewJobs(List<Job> newJobs, SeenLinks oldJobsLinks) {
         if(oldJobsLinks.isEmpty()){
             return newJobs;
         }
@@ -36,49 +64,50 @@ public class JobFilter {
     }
 
     private boolean containsExcludedTerm(String title) {
-        String lowerTitle = title.toLowerCase();
-        return excludedTitleTerms.stream()
-                .anyMatch(lowerTitle::contains);
+        return titleMatcher.containsAny(title);
     }
 
 
 
     public boolean validateDescription(String description) {
+        String provider = ProviderContext.current();
+        ValidationEvent event = ValidationEvent.begin(description);
+        Metrics.DESCRIPTIONS_CHECKED.labels(provider).increment();
+        boolean valid = checkDescription(description);
+        if (valid) {
+            Metrics.DESCRIPTIONS_PASSED.labels(provider).increment();
+        }
+        event.valid = valid;
+        event.commit();
+        return valid;
+    }
 
-
+    private boolean checkDescription(String description) {
         if (description == null || description.isEmpty()) {
             System.out.println("Job invalid: Description is null or empty");
             return false;
         }
 
-        String descLower = description.toLowerCase();
+        int found = descriptionMatcher.matchCategories(description);
 
         // Check if description contains at least one position
-        boolean hasPosition = appConfig.getPositions().stream()
-                .anyMatch(position -> descLower.contains(position.toLowerCase()));
-
-        if (!hasPosition) {
+        if ((found & (1 << POSITION)) == 0) {
             System.out.println("Job invalid: No matching position found. Required positions: " +
                     appConfig.getPositions());
             return false;
         }
 
         // Check if description contains at least one level
-        boolean hasLevel = appConfig.getLevels().stream()
-                .anyMatch(level -> descLower.contains(level.toLowerCase()));
-
-        if (!hasLevel) {
+        if ((found & (1 << LEVEL)) == 0) {
             System.out.println("Job invalid: No matching level found. Required levels: " +
                     appConfig.getLevels());
             return false;
         }
 
         // Check if description contains any excluded terms
-        List<String> foundExcludedTerms = appConfig.getExcludedPageTerms().stream()
-                .filter(excludedTerm -> descLower.contains(excludedTerm.toLowerCase())).toList();
-
-        if (!foundExcludedTerms.isEmpty()) {
-            System.out.println("Job invalid: Contains excluded terms: " + foundExcludedTerms);
+        if ((found & (1 << EXCLUDED)) != 0) {
+            System.out.println("Job invalid: Contains excluded terms: " +
+                    descriptionMatcher.findTerms(description, EXCLUDED));
             return false;
         }
 
@@ -91,15 +120,8 @@ public class JobFilter {
             return false;
         }
 
-        String descLower = description.toLowerCase();
-
         // Must have at least one position AND one level
         // Must NOT have any excluded terms
-        return appConfig.getPositions().stream()
-                .anyMatch(position -> descLower.contains(position.toLowerCase()))
-                && appConfig.getLevels().stream()
-                .anyMatch(level -> descLower.contains(level.toLowerCase()))
-                && appConfig.getExcludedPageTerms().stream()
-                .noneMatch(excludedTerm -> descLower.contains(excludedTerm.toLowerCase()));
+        return descriptionMatcher.matchCategories(description) == VALID_DESCRIPTION;
     }
 }
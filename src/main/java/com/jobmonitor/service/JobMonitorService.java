@@ -1,29 +1,33 @@
 package com.jobmonitor.service;
 
 import com.jobmonitor.config.AppConfig;
-import com.jobmonitor.model.Job;
+import com.jobmonitor.metrics.Metrics;
 import com.jobmonitor.notifier.Notifier;
 import com.jobmonitor.storage.JobStorage;
-import java.time.LocalTime;
-import java.util.ArrayList;
+import com.jobmonitor.storage.ProviderYield;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Instant;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
 public class JobMonitorService {
     private final AppConfig config;
 
-    private final JobFilter jobFilter;
-    private final JobStorage storage;
-    private final List<Notifier> notifiers;
+    private final JobPipeline pipeline;
     private ScheduledExecutorService scheduler;
+    private ProviderScheduler providerScheduler;
 
     private final List<JobsProvider> jobsProviders;
 
-    private final Set<String> jobLinks;
+    private final LinkIndex jobLinks;
+    private final NearDuplicateIndex nearDuplicates;
+    private final JobStorage storage;
+    private final ActiveWindow activeWindow;
+    private LocalDate lastYieldReport;
     public JobMonitorService(
             AppConfig config,
             List<JobsProvider> jobsProviders,
@@ -31,17 +35,31 @@ public class JobMonitorService {
             JobStorage storage,
             List<Notifier> notifiers) {
         this.config = config;
-        this.jobFilter = jobFilter;
-        this.storage = storage;
-        this.notifiers = notifiers;
         this.jobsProviders = jobsProviders;
+        this.storage = storage;
+        this.activeWindow = ActiveWindow.from(config);
+
+        // Providers read the index while the pipeline adds newly notified links to it
+        jobLinks = new LinkIndex(config.isSeenLinksExact());
+        storage.forEachStoredLink(jobLinks::add);
+        nearDuplicates = config.isNearDuplicateEnabled()
+                ? new NearDuplicateIndex(config.getNearDuplicateMaxDistance())
+                : null;
+        if (nearDuplicates != null) {
+            storage.forEachStoredJob(job ->
+                    nearDuplicates.add(job.getTitle(), job.getSnippet(), job.getLastSeen().toEpochMilli()));
+        }
+        evictExpiredLinks();
+        System.out.println("Loaded " + jobLinks.size() + " seen link(s) into a " +
+                jobLinks.memoryBytes() / 1024 + " KB index");
+        Metrics.gauge("jobmonitor_seen_links", "Links in the seen set", jobLinks::size);
+        Metrics.gauge("jobmonitor_seen_links_bytes", "Memory held by the seen set", jobLinks::memoryBytes);
 
-        jobLinks = storage.getStoredJobLinks();
+        this.pipeline = new JobPipeline(jobFilter, storage, notifiers, jobLinks, nearDuplicates);
     }
 
     public void start() {
-        System.out.println("Starting job monitoring...");
-        System.out.println("Checking every " + config.getCheckIntervalMinutes() + " minutes\n");
+        System.out.println("Starting job monitoring, " + activeWindow);
 
         startScheduler();
     }
@@ -50,80 +68,74 @@ public class JobMonitorService {
         if (scheduler != null && !scheduler.isShutdown()) {
             scheduler.shutdown();
         }
+        if (providerScheduler != null) {
+            providerScheduler.stop();
+            providerScheduler = null;
+        }
+        pipeline.close();
     }
 
+    // Providers run on their own schedules, this periodic task only does the housekeeping between them
     private void startScheduler() {
+        providerScheduler = new ProviderScheduler(config, jobsProviders, jobLinks, pipeline, activeWindow);
+        providerScheduler.start();
+
         scheduler = Executors.newSingleThreadScheduledExecutor();
         long intervalMinutes = config.getCheckIntervalMinutes();
-        
-        scheduler.scheduleAtFixedRate(() -> {
-            checkAndNotify();
-            checkSleepTime();
-        }, 0, intervalMinutes, TimeUnit.MINUTES);
+
+        scheduler.scheduleAtFixedRate(this::checkAndNotify, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
     }
 
     private void checkAndNotify() {
         try {
-            List<Job> currentJobs = new ArrayList<>();
+            evictExpiredLinks();
 
-            for(JobsProvider a: jobsProviders){
-                currentJobs.addAll(a.fetchJobs());
+            // New jobs were already notified while providers ran, only report an empty period here,
+            // and not while quiet: nothing ran then
+            if (pipeline.flush() == 0 && activeWindow.isActive(Instant.now())) {
+                pipeline.notifyJobs(List.of());
             }
 
-
-            System.out.println("Fetched " + currentJobs.size() + " jobs from providers");
-
-
-
-            List<Job> newJobs = jobFilter.filterNewJobs(currentJobs, jobLinks);
-
-            notifyJobs(newJobs);
-
-            if(!newJobs.isEmpty()){
-
-                updateNewLinks(newJobs);
-            }
+            reportProviderYield();
         } catch (Exception e) {
             System.err.println("Error checking jobs: " + e.getMessage());
             e.printStackTrace();
         }
     }
 
-    private void notifyJobs(List<Job>  jobs){
-        for (Notifier notifier : notifiers) {
-            try {
-                notifier.notify(jobs);
-            } catch (Exception e) {
-                System.err.println("Error sending notification: " + e.getMessage());
-            }
+    // Once a day, how many new jobs each provider found over the last week
+    private void reportProviderYield() {
+        LocalDate today = LocalDate.now();
+        if (today.equals(lastYieldReport)) {
+            return;
         }
+        lastYieldReport = today;
 
-        System.out.println("Sent notifications for " + jobs.size() + " new job(s)");
-
+        Map<String, ProviderYield> yields = storage.providerYield(Duration.ofDays(7));
+        if (yields.isEmpty()) {
+            return;
+        }
+        System.out.println("Provider yield over the last 7 days:");
+        for (ProviderYield providerYield : yields.values()) {
+            System.out.println("  " + providerYield);
+        }
     }
 
+    // Text storage has no timestamps, its links count as seen at startup
+    private void evictExpiredLinks() {
+        int retentionDays = config.getStorageRetentionDays();
+        if (retentionDays <= 0) {
+            return;
+        }
 
-    private void updateNewLinks(List<Job> jobs) {
-        Set<String> links = jobs.stream()
-                .map(Job::getLink)
-                .collect(Collectors.toSet());
-
-
-        jobLinks.addAll(links);
-        storage.saveJobLinks(links);
-    }
+        long cutoff = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(retentionDays);
+        if (nearDuplicates != null) {
+            nearDuplicates.evictOlderThan(cutoff);
+        }
 
-    private void checkSleepTime() {
-        int currentHour = LocalTime.now().getHour();
-        if (currentHour >= config.getSleepHour()) {
-
-            stop();
-            
-            Executors.newSingleThreadScheduledExecutor().schedule(
-                    this::start,
-                    config.getSleepTimeMs(),
-                    TimeUnit.HOURS
-            );
+        int evicted = jobLinks.evictOlderThan(cutoff);
+        if (evicted > 0) {
+            System.out.println("Forgot " + evicted + " link(s) not seen for " + retentionDays + " days");
         }
     }
 }
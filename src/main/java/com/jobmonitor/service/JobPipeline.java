@@ -0,0 +1,209 @@
+package com.jobmonitor.service;
+
+import com.jobmonitor.metrics.Metrics;
+import com.jobmonitor.model.Job;
+import com.jobmonitor.notifier.Notifier;
+import com.jobmonitor.storage.JobStorage;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Dedups, notifies and persists jobs while providers are still running.
+// Providers push into the queue, a single worker takes whatever has arrived and handles it as one batch.
+// Links providers skipped as already seen wait in their own queue and are written with the next batch,
+// or after a second when no jobs arrive.
+public class JobPipeline implements JobSink {
+
+    private static final long SEEN_LINKS_WAIT_SECONDS = 1;
+    private static final long CLOSE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final JobFilter jobFilter;
+    private final JobStorage storage;
+    private final List<Notifier> notifiers;
+    private final LinkIndex jobLinks;
+    // Null when near-duplicate detection is off
+    private final NearDuplicateIndex nearDuplicates;
+
+    private final BlockingQueue<Job> queue = new LinkedBlockingQueue<>();
+    private final ConcurrentLinkedQueue<String> seenLinks = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private volatile boolean closed;
+
+    // Guarded by this
+    private long received;
+    private long processed;
+    private int newJobsSinceFlush;
+
+    public JobPipeline(JobFilter jobFilter, JobStorage storage, List<Notifier> notifiers, LinkIndex jobLinks,
+                       NearDuplicateIndex nearDuplicates) {
+        this.jobFilter = jobFilter;
+        this.storage = storage;
+        this.notifiers = notifiers;
+        this.jobLinks = jobLinks;
+        this.nearDuplicates = nearDuplicates;
+
+        this.worker = new Thread(this::run, "job-pipeline");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @Override
+    public void accept(Job job) {
+        synchronized (this) {
+            received++;
+        }
+        queue.add(job);
+    }
+
+    @Override
+    public void seen(String link) {
+        seenLinks.add(link);
+    }
+
+    // Waits until every job accepted so far has been handled, returns the number of new jobs since the last flush
+    public synchronized int flush() throws InterruptedException {
+        long target = received;
+        while (processed < target) {
+            wait();
+        }
+
+        int newJobs = newJobsSinceFlush;
+        newJobsSinceFlush = 0;
+        return newJobs;
+    }
+
+    // Handles what is still queued and stops the worker, waiting at most CLOSE_TIMEOUT_MILLIS.
+    // Must run before the storage and notifiers are closed, jobs accepted later are left for the next start.
+    public void close() {
+        closed = true;
+        try {
+            worker.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            System.err.println("Job pipeline still busy at shutdown, " + queue.size() + " job(s) not saved");
+        }
+    }
+
+    // Hands a batch to the notifiers, e.g. the empty "no new jobs" report at the end of a cycle
+    public void notifyJobs(List<Job> jobs) {
+        for (Notifier notifier : notifiers) {
+            try {
+                notifier.notify(jobs);
+            } catch (Exception e) {
+                System.err.println("Error sending notification: " + e.getMessage());
+            }
+        }
+
+        System.out.println("Queued notifications for " + jobs.size() + " new job(s)");
+    }
+
+    private void run() {
+        while (!closed || !queue.isEmpty()) {
+            List<Job> batch = new ArrayList<>();
+            try {
+                Job first = queue.poll(SEEN_LINKS_WAIT_SECONDS, TimeUnit.SECONDS);
+                if (first == null) {
+                    markSeen(List.of());
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch);
+
+            long startNanos = System.nanoTime();
+            try {
+                process(batch);
+            } catch (Exception e) {
+                System.err.println("Error processing jobs: " + e.getMessage());
+                e.printStackTrace();
+            } finally {
+                Metrics.PIPELINE_BATCH_SECONDS.get().recordSince(startNanos);
+                synchronized (this) {
+                    processed += batch.size();
+                    notifyAll();
+                }
+            }
+        }
+        markSeen(List.of());
+    }
+
+    private void process(List<Job> batch) {
+        // The same job may come from two providers in one batch
+        Map<String, Job> unique = new LinkedHashMap<>();
+        for (Job job : jobFilter.filterNewJobs(batch, jobLinks)) {
+            unique.putIfAbsent(LinkCanonicalizer.canonicalize(job.getLink()), job);
+        }
+
+        // Known jobs fetched again only refresh their last-seen time in storage
+        List<Job> seenAgain = new ArrayList<>();
+        for (Job job : batch) {
+            if (!unique.containsKey(LinkCanonicalizer.canonicalize(job.getLink()))) {
+                seenAgain.add(job);
+            }
+        }
+
+        List<Job> newJobs = new ArrayList<>(unique.values());
+        jobLinks.addAll(unique.keySet());
+
+        // Near duplicates are still stored under their own link, only the notification is skipped
+        List<Job> notified = withoutNearDuplicates(newJobs);
+        if (!notified.isEmpty()) {
+            notifyJobs(notified);
+        }
+        for (Job job : notified) {
+            Metrics.JOBS_NEW.labels(job.getProvider()).increment();
+        }
+        storage.saveJobs(newJobs, seenAgain);
+        markSeen(seenAgain);
+
+        synchronized (this) {
+            newJobsSinceFlush += notified.size();
+        }
+    }
+
+    // Keeps still-listed jobs from expiring: in the index, which forgets links by last-seen day, and in storage
+    private void markSeen(List<Job> seenAgain) {
+        long now = System.currentTimeMillis();
+        for (Job job : seenAgain) {
+            jobLinks.touch(job.getLink(), now);
+        }
+
+        List<String> skipped = new ArrayList<>();
+        for (String link = seenLinks.poll(); link != null; link = seenLinks.poll()) {
+            skipped.add(link);
+        }
+        if (skipped.isEmpty()) {
+            return;
+        }
+        for (String link : skipped) {
+            jobLinks.touch(link, now);
+        }
+        storage.markSeen(skipped);
+    }
+
+    private List<Job> withoutNearDuplicates(List<Job> jobs) {
+        if (nearDuplicates == null) {
+            return jobs;
+        }
+
+        List<Job> distinct = new ArrayList<>();
+        for (Job job : jobs) {
+            if (nearDuplicates.isDuplicateOrAdd(job.getTitle(), job.getSnippet())) {
+                System.out.println("Skipping near-duplicate job: " + job.getTitle() + " (" + job.getLink() + ")");
+            } else {
+                distinct.add(job);
+            }
+        }
+        return distinct;
+    }
+}
@@ -0,0 +1,15 @@
+package com.jobmonitor.service;
+
+import com.jobmonitor.model.Job;
+
+// Receives jobs from a provider as soon as they are found. Implementations must be thread safe,
+// several providers push into the same sink at once.
+@FunctionalInterface
+public interface JobSink {
+
+    void accept(Job job);
+
+    // A listed job the provider skipped because its link is already seen, it only refreshes the last-seen time
+    default void seen(String link) {
+    }
+}
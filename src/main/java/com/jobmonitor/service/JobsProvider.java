@@ -6,5 +6,22 @@ import java.util.List;
 
 public interface JobsProvider {
 
+     String getName();
+
      List<Job> fetchJobs() throws Exception;
+
+     // seenLinks holds every link already notified. Providers that can use it
+     // override this to skip detail pages of known jobs, and when results are sorted newest first
+     // to stop paging once a page holds nothing new.
+     default List<Job> fetchJobs(SeenLinks seenLinks) throws Exception {
+          return fetchJobs();
+     }
+
+     // Pushes jobs into the sink as they are found. The default adapts list based providers and
+     // delivers everything once fetchJobs returns, providers that page through results override it.
+     default void streamJobs(SeenLinks seenLinks, JobSink sink) throws Exception {
+          for (Job job : fetchJobs(seenLinks)) {
+               sink.accept(job);
+          }
+     }
 }
@@ -0,0 +1,161 @@
+package com.jobmonitor.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+// Normalizes job links so the same posting reached through slightly different URLs compares equal:
+// lower case scheme and host, no default port, fragment, trailing slash or tracking parameters,
+// remaining query parameters in sorted order. Links without a scheme are only trimmed.
+public final class LinkCanonicalizer {
+
+    // Besides utm_* and mc_*, isTracking relies on these starting with g or f
+    private static final List<String> TRACKING_PARAMETERS = List.of("gclid", "fbclid");
+
+    private LinkCanonicalizer() {
+    }
+
+    // Parsed by hand rather than through java.net.URI, this runs for every link a provider checks
+    public static String canonicalize(String link) {
+        String trimmed = link.trim();
+
+        int schemeEnd = trimmed.indexOf("://");
+        if (schemeEnd <= 0) {
+            return trimmed;
+        }
+        int fragmentStart = trimmed.indexOf('#');
+        int end = fragmentStart >= 0 ? fragmentStart : trimmed.length();
+        int hostStart = schemeEnd + 3;
+        int hostEnd = hostStart;
+        while (hostEnd < end && trimmed.charAt(hostEnd) != '/' && trimmed.charAt(hostEnd) != '?') {
+            hostEnd++;
+        }
+
+        boolean http = schemeEnd == 4 && trimmed.regionMatches(true, 0, "http", 0, 4);
+        boolean https = schemeEnd == 5 && trimmed.regionMatches(true, 0, "https", 0, 5);
+        int hostEndWithoutPort = hostEnd;
+        if ((http && trimmed.regionMatches(hostEnd - 3, ":80", 0, 3))
+                || (https && trimmed.regionMatches(hostEnd - 4, ":443", 0, 4))) {
+            hostEndWithoutPort = trimmed.lastIndexOf(':', hostEnd);
+        }
+
+        int queryStart = trimmed.indexOf('?', hostEnd);
+        if (queryStart < 0 || queryStart > end) {
+            queryStart = end;
+        }
+        int pathEnd = queryStart;
+        while (pathEnd > hostEnd && trimmed.charAt(pathEnd - 1) == '/') {
+            pathEnd--;
+        }
+        boolean canonicalQuery = queryStart == end || isCanonicalQuery(trimmed, queryStart + 1, end);
+
+        // Most links already are canonical, they are returned without building a copy
+        if (end == trimmed.length() && hostEndWithoutPort == hostEnd && pathEnd == queryStart && canonicalQuery
+                && isLowerCaseAscii(trimmed, 0, hostEnd)) {
+            return trimmed;
+        }
+
+        StringBuilder canonical = new StringBuilder(end)
+                .append(trimmed.substring(0, schemeEnd).toLowerCase(Locale.ROOT))
+                .append("://")
+                .append(trimmed.substring(hostStart, hostEndWithoutPort).toLowerCase(Locale.ROOT))
+                .append(trimmed, hostEnd, pathEnd);
+
+        if (queryStart < end) {
+            if (canonicalQuery) {
+                canonical.append(trimmed, queryStart, end);
+            } else {
+                List<String> parameters = queryParameters(trimmed.substring(queryStart + 1, end));
+                if (!parameters.isEmpty()) {
+                    canonical.append('?').append(String.join("&", parameters));
+                }
+            }
+        }
+        return canonical.toString();
+    }
+
+    // Anything outside ASCII is left to String.toLowerCase
+    private static boolean isLowerCaseAscii(String text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if ((c >= 'A' && c <= 'Z') || c >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // True if the query has no empty or tracking parameters and lists the rest in sorted order
+    private static boolean isCanonicalQuery(String link, int start, int end) {
+        int previousStart = -1;
+        int previousEnd = -1;
+        while (start <= end) {
+            int parameterEnd = link.indexOf('&', start);
+            if (parameterEnd < 0 || parameterEnd > end) {
+                parameterEnd = end;
+            }
+            if (parameterEnd == start || isTracking(link, start, parameterEnd)) {
+                return false;
+            }
+            if (previousStart >= 0 && compareRegions(link, previousStart, previousEnd, start, parameterEnd) > 0) {
+                return false;
+            }
+            previousStart = start;
+            previousEnd = parameterEnd;
+            start = parameterEnd + 1;
+        }
+        return true;
+    }
+
+    // String.compareTo for two regions of the same string
+    private static int compareRegions(String text, int firstStart, int firstEnd, int secondStart, int secondEnd) {
+        int length = Math.min(firstEnd - firstStart, secondEnd - secondStart);
+        for (int i = 0; i < length; i++) {
+            int difference = text.charAt(firstStart + i) - text.charAt(secondStart + i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return (firstEnd - firstStart) - (secondEnd - secondStart);
+    }
+
+    private static List<String> queryParameters(String rawQuery) {
+        List<String> parameters = new ArrayList<>();
+        int start = 0;
+        while (start <= rawQuery.length()) {
+            int end = rawQuery.indexOf('&', start);
+            if (end < 0) {
+                end = rawQuery.length();
+            }
+            if (end > start && !isTracking(rawQuery, start, end)) {
+                parameters.add(rawQuery.substring(start, end));
+            }
+            start = end + 1;
+        }
+
+        if (parameters.size() > 1) {
+            Collections.sort(parameters);
+        }
+        return parameters;
+    }
+
+    private static boolean isTracking(String query, int nameStart, int parameterEnd) {
+        // Case-insensitive region matches are slow, most names are ruled out by their first letter
+        char first = (char) (query.charAt(nameStart) | 0x20);
+        if (first != 'u' && first != 'g' && first != 'f' && first != 'm') {
+            return false;
+        }
+        if (query.regionMatches(true, nameStart, "utm_", 0, 4) || query.regionMatches(true, nameStart, "mc_", 0, 3)) {
+            return true;
+        }
+        for (String name : TRACKING_PARAMETERS) {
+            int nameEnd = nameStart + name.length();
+            if (nameEnd <= parameterEnd && query.regionMatches(true, nameStart, name, 0, name.length())
+                    && (nameEnd == parameterEnd || query.charAt(nameEnd) == '=')) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
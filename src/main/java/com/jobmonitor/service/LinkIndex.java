@@ -0,0 +1,270 @@
+package com.jobmonitor.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToLongFunction;
+
+// Set of seen links stored as 64-bit fingerprints of their canonical form in an open-addressing long[] table,
+// 12 bytes per slot with the day it was last seen, instead of the few hundred a HashSet<String> entry costs
+// for a long URL.
+// Two different links sharing a fingerprint is unlikely (~n^2 / 2^65) but would hide the second one,
+// exact mode also keeps the canonical bytes in one byte[] arena and compares them on a fingerprint match.
+// Reads share a lock, so providers can check links while the pipeline adds new ones. A Bloom filter in front
+// of the table was tried and dropped: FilterNewJobsBenchmark was no faster with it, since a miss in a table
+// kept under 2/3 full already ends after a probe or two.
+// Each link keeps the day it was last seen so links past the retention window can be evicted,
+// touch() moves it forward for links that are still being fetched.
+public class LinkIndex implements SeenLinks {
+
+    private static final int MIN_CAPACITY = 1024;
+    private static final long EMPTY = 0;
+
+    private final boolean exact;
+    private final ToLongFunction<byte[]> hash;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private long[] fingerprints;
+    private int[] lastSeenDays;
+    private int[] offsets;
+    private byte[] arena;
+    private int arenaSize;
+    private int size;
+
+    public LinkIndex(boolean exact) {
+        this(exact, MIN_CAPACITY);
+    }
+
+    public LinkIndex(boolean exact, int expectedSize) {
+        this(exact, expectedSize, Fingerprints::hash64);
+    }
+
+    // hash lets tests force fingerprint and slot collisions
+    LinkIndex(boolean exact, int expectedSize, ToLongFunction<byte[]> hash) {
+        this.exact = exact;
+        this.hash = hash;
+        allocate(tableCapacity(expectedSize));
+        this.arena = exact ? new byte[MIN_CAPACITY * 64] : null;
+    }
+
+    @Override
+    public boolean contains(String link) {
+        byte[] key = canonicalBytes(link);
+        long fingerprint = fingerprint(key);
+
+        lock.readLock().lock();
+        try {
+            return fingerprints[findSlot(fingerprint, key)] != EMPTY;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean add(String link) {
+        return add(link, System.currentTimeMillis());
+    }
+
+    // Returns false if the link (or one with the same canonical form) was already present
+    public boolean add(String link, long seenMillis) {
+        byte[] key = canonicalBytes(link);
+        long fingerprint = fingerprint(key);
+
+        lock.writeLock().lock();
+        try {
+            int slot = findSlot(fingerprint, key);
+            if (fingerprints[slot] != EMPTY) {
+                return false;
+            }
+
+            fingerprints[slot] = fingerprint;
+            lastSeenDays[slot] = toDays(seenMillis);
+            if (exact) {
+                offsets[slot] = appendToArena(key);
+            }
+            size++;
+
+            // Keep the load factor under 2/3 so probe sequences stay short
+            if (size * 3L > fingerprints.length * 2L) {
+                rebuild(fingerprints.length * 2, Integer.MIN_VALUE);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addAll(Collection<String> links) {
+        for (String link : links) {
+            add(link);
+        }
+    }
+
+    // Marks a present link as seen at the given time, unknown links are ignored
+    public void touch(String link, long seenMillis) {
+        byte[] key = canonicalBytes(link);
+        long fingerprint = fingerprint(key);
+        int days = toDays(seenMillis);
+        lock.writeLock().lock();
+        try {
+            int slot = findSlot(fingerprint, key);
+            if (fingerprints[slot] != EMPTY && lastSeenDays[slot] < days) {
+                lastSeenDays[slot] = days;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Drops links last seen before the cutoff, returns how many were removed
+    public int evictOlderThan(long cutoffMillis) {
+        int cutoffDays = toDays(cutoffMillis);
+
+        lock.writeLock().lock();
+        try {
+            int before = size;
+            boolean expired = false;
+            for (int i = 0; i < fingerprints.length && !expired; i++) {
+                expired = fingerprints[i] != EMPTY && lastSeenDays[i] < cutoffDays;
+            }
+            if (expired) {
+                rebuild(tableCapacity(size), cutoffDays);
+            }
+            return before - size;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Approximate heap used by the table and arena
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = (long) fingerprints.length * (Long.BYTES + Integer.BYTES);
+            if (exact) {
+                bytes += (long) offsets.length * Integer.BYTES + arena.length;
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Slot holding the key, or the empty slot where it would be inserted
+    private int findSlot(long fingerprint, byte[] key) {
+        int mask = fingerprints.length - 1;
+        int slot = (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+
+        while (true) {
+            long current = fingerprints[slot];
+            if (current == EMPTY) {
+                return slot;
+            }
+            if (current == fingerprint && (!exact || arenaEquals(offsets[slot], key))) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    // Re-inserts the entries last seen on or after minDays into a table of the given capacity.
+    // In exact mode this also compacts the arena.
+    private void rebuild(int capacity, int minDays) {
+        long[] oldFingerprints = fingerprints;
+        int[] oldDays = lastSeenDays;
+        int[] oldOffsets = offsets;
+        byte[] oldArena = arena;
+
+        allocate(capacity);
+        if (exact) {
+            arena = new byte[Math.max(MIN_CAPACITY * 64, arenaSize)];
+            arenaSize = 0;
+        }
+        size = 0;
+
+        int mask = capacity - 1;
+        for (int i = 0; i < oldFingerprints.length; i++) {
+            long fingerprint = oldFingerprints[i];
+            if (fingerprint == EMPTY || oldDays[i] < minDays) {
+                continue;
+            }
+
+            // Entries are distinct, so only an empty slot is needed, no key comparison
+            int slot = (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+            while (fingerprints[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            fingerprints[slot] = fingerprint;
+            lastSeenDays[slot] = oldDays[i];
+            if (exact) {
+                offsets[slot] = copyToArena(oldArena, oldOffsets[i]);
+            }
+            size++;
+        }
+    }
+
+    private void allocate(int capacity) {
+        fingerprints = new long[capacity];
+        lastSeenDays = new int[capacity];
+        offsets = exact ? new int[capacity] : null;
+    }
+
+    // Arena entries are [2 byte length][bytes]
+    private int appendToArena(byte[] key) {
+        int needed = arenaSize + 2 + key.length;
+        if (needed > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(needed, arena.length * 2));
+        }
+
+        int offset = arenaSize;
+        arena[offset] = (byte) (key.length >>> 8);
+        arena[offset + 1] = (byte) key.length;
+        System.arraycopy(key, 0, arena, offset + 2, key.length);
+        arenaSize = needed;
+        return offset;
+    }
+
+    private int copyToArena(byte[] source, int offset) {
+        int length = ((source[offset] & 0xff) << 8) | (source[offset + 1] & 0xff);
+        return appendToArena(Arrays.copyOfRange(source, offset + 2, offset + 2 + length));
+    }
+
+    private boolean arenaEquals(int offset, byte[] key) {
+        int length = ((arena[offset] & 0xff) << 8) | (arena[offset + 1] & 0xff);
+        return length == key.length
+                && Arrays.equals(arena, offset + 2, offset + 2 + length, key, 0, key.length);
+    }
+
+    private static byte[] canonicalBytes(String link) {
+        byte[] bytes = LinkCanonicalizer.canonicalize(link).getBytes(StandardCharsets.UTF_8);
+        // The arena stores lengths in two bytes, links longer than 64 KB are compared by their first 64 KB
+        return bytes.length <= 0xffff ? bytes : Arrays.copyOf(bytes, 0xffff);
+    }
+
+    // 0 is reserved for empty slots
+    private long fingerprint(byte[] key) {
+        long fingerprint = hash.applyAsLong(key);
+        return fingerprint == EMPTY ? 1 : fingerprint;
+    }
+
+    private static int toDays(long epochMillis) {
+        return (int) Math.floorDiv(epochMillis, 86_400_000L);
+    }
+
+    private static int tableCapacity(int expectedSize) {
+        long needed = Math.max(MIN_CAPACITY, expectedSize * 3L / 2 + 1);
+        return (int) Math.min(1 << 30, Long.highestOneBit(needed - 1) << 1);
+    }
+}
@@ -0,0 +1,205 @@
+package com.jobmonitor.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Finds jobs whose title and snippet are nearly the same as an earlier job's, e.g. a requisition reposted
+// under a new URL. Each job becomes a 64-bit SimHash of its words and word pairs (title words count double),
+// similar texts get hashes that differ in few bits.
+// Lookups use banded LSH: the hash is cut into maxDistance + 1 bands, and two hashes within maxDistance bits
+// agree on at least one whole band, so only jobs sharing a band value are compared instead of the whole history.
+// A lookup compares about bands * n / 2^bandBits jobs: at the default distance of 3 (4 bands of 16 bits) that is
+// a handful, but at 15 (16 bands of 4 bits) it is about n, as slow as a full scan though still exact.
+// Each job keeps the day it was last seen, a duplicate hit moves it forward, so a requisition reposted again
+// and again stays recognized past the retention window.
+public class NearDuplicateIndex {
+
+    // Shorter texts ("Software Engineer") are too generic to call anything a duplicate of them
+    private static final int MIN_WORDS = 6;
+    private static final int TITLE_WEIGHT = 2;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "at", "for", "in", "of", "on", "or", "the", "to", "with",
+            "job", "jobs", "career", "careers");
+
+    private final int maxDistance;
+    private final int bands;
+    private final int bandBits;
+
+    // Per band: band value -> ids of the jobs having it
+    private final List<Map<Long, int[]>> tables = new ArrayList<>();
+
+    // Guarded by this, indexed by id
+    private long[] hashes = new long[INITIAL_CAPACITY];
+    private int[] lastSeenDays = new int[INITIAL_CAPACITY];
+    private int size;
+
+    public NearDuplicateIndex(int maxDistance) {
+        if (maxDistance < 0 || maxDistance > 15) {
+            throw new IllegalArgumentException("Near duplicate distance must be between 0 and 15: " + maxDistance);
+        }
+        this.maxDistance = maxDistance;
+        this.bands = maxDistance + 1;
+        this.bandBits = Long.SIZE / bands;
+        for (int band = 0; band < bands; band++) {
+            tables.add(new HashMap<>());
+        }
+    }
+
+    public boolean isDuplicateOrAdd(String title, String snippet) {
+        return isDuplicateOrAdd(title, snippet, System.currentTimeMillis());
+    }
+
+    // True when a near duplicate was indexed before, which then counts as seen now, otherwise indexes this job
+    // and returns false. Jobs with too little text are never duplicates and are not indexed.
+    public boolean isDuplicateOrAdd(String title, String snippet, long seenMillis) {
+        return isDuplicateOrAdd(simHash(title, snippet), seenMillis);
+    }
+
+    // Indexes a stored job as of when it was last seen
+    public void add(String title, String snippet, long lastSeenMillis) {
+        isDuplicateOrAdd(simHash(title, snippet), lastSeenMillis);
+    }
+
+    // Takes the SimHash itself, so tests can pick the distance between two jobs
+    synchronized boolean isDuplicateOrAdd(long hash, long seenMillis) {
+        if (hash == 0) {
+            return false;
+        }
+        int id = findNear(hash);
+        if (id >= 0) {
+            lastSeenDays[id] = Math.max(lastSeenDays[id], toDays(seenMillis));
+            return true;
+        }
+        insert(hash, seenMillis);
+        return false;
+    }
+
+    // Drops jobs last seen before the cutoff, returns how many were removed
+    public synchronized int evictOlderThan(long cutoffMillis) {
+        int cutoffDays = toDays(cutoffMillis);
+        if (Arrays.stream(lastSeenDays, 0, size).allMatch(days -> days >= cutoffDays)) {
+            return 0;
+        }
+
+        long[] oldHashes = hashes;
+        int[] oldDays = lastSeenDays;
+        int oldSize = size;
+
+        tables.forEach(Map::clear);
+        size = 0;
+        for (int id = 0; id < oldSize; id++) {
+            if (oldDays[id] >= cutoffDays) {
+                insert(oldHashes[id], oldDays[id] * 86_400_000L);
+            }
+        }
+        return oldSize - size;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // 64-bit SimHash over the normalized words and adjacent word pairs, 0 when there are fewer than MIN_WORDS words
+    static long simHash(String title, String snippet) {
+        int[] weights = new int[Long.SIZE];
+        int words = addFeatures(title, TITLE_WEIGHT, weights) + addFeatures(snippet, 1, weights);
+        if (words < MIN_WORDS) {
+            return 0;
+        }
+
+        long hash = 0;
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            if (weights[bit] > 0) {
+                hash |= 1L << bit;
+            }
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static int addFeatures(String text, int weight, int[] weights) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+
+        List<String> words = new ArrayList<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}+#]+")) {
+            if (!word.isEmpty() && !STOP_WORDS.contains(word)) {
+                words.add(word);
+            }
+        }
+
+        String previous = null;
+        for (String word : words) {
+            addFeature(Fingerprints.hash64(word, 0, word.length()), weight, weights);
+            if (previous != null) {
+                String pair = previous + ' ' + word;
+                addFeature(Fingerprints.hash64(pair, 0, pair.length()), weight, weights);
+            }
+            previous = word;
+        }
+        return words.size();
+    }
+
+    private static void addFeature(long featureHash, int weight, int[] weights) {
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            weights[bit] += (featureHash >>> bit & 1) != 0 ? weight : -weight;
+        }
+    }
+
+    // Id of an indexed job within maxDistance bits, or -1
+    private int findNear(long hash) {
+        for (int band = 0; band < bands; band++) {
+            int[] ids = tables.get(band).get(bandValue(hash, band));
+            if (ids == null) {
+                continue;
+            }
+            for (int i = 1; i <= ids[0]; i++) {
+                if (Long.bitCount(hashes[ids[i]] ^ hash) <= maxDistance) {
+                    return ids[i];
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void insert(long hash, long lastSeenMillis) {
+        if (size == hashes.length) {
+            hashes = Arrays.copyOf(hashes, size * 2);
+            lastSeenDays = Arrays.copyOf(lastSeenDays, size * 2);
+        }
+
+        int id = size++;
+        hashes[id] = hash;
+        lastSeenDays[id] = toDays(lastSeenMillis);
+
+        for (int band = 0; band < bands; band++) {
+            // Bucket arrays keep their element count in slot 0
+            tables.get(band).merge(bandValue(hash, band), new int[] {1, id}, (ids, added) -> {
+                int count = ids[0] + 1;
+                int[] grown = count < ids.length ? ids : Arrays.copyOf(ids, ids.length * 2);
+                grown[count] = id;
+                grown[0] = count;
+                return grown;
+            });
+        }
+    }
+
+    // The last band also takes the bits left over when 64 does not divide evenly
+    private long bandValue(long hash, int band) {
+        int shift = band * bandBits;
+        int bits = band == bands - 1 ? Long.SIZE - shift : bandBits;
+        long mask = bits == Long.SIZE ? -1L : (1L << bits) - 1;
+        return (hash >>> shift) & mask;
+    }
+
+    private static int toDays(long epochMillis) {
+        return (int) Math.floorDiv(epochMillis, 86_400_000L);
+    }
+}
@@ -0,0 +1,293 @@
+package com.jobmonitor.service;
+
+import com.jobmonitor.config.AppConfig;
+import com.jobmonitor.metrics.FlightRecording;
+import com.jobmonitor.metrics.Metrics;
+import com.jobmonitor.metrics.ProviderContext;
+import com.jobmonitor.metrics.ProviderRunEvent;
+import com.jobmonitor.model.Job;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Runs every provider on its own schedule instead of all of them at one fixed rate.
+// All timers (next runs and run deadlines) live in one DelayQueue served by a single dispatcher thread,
+// runs execute on a fixed pool, which bounds how many providers fetch at once.
+// After a run the provider's interval adapts: it tightens while runs keep finding unseen jobs and relaxes
+// while they do not, between half and four times its base interval. Failed or timed out runs back off
+// exponentially instead, up to the same ceiling. Every delay gets some jitter so providers drift apart.
+// Runs that come due outside the active window wait for it to open; nothing is torn down meanwhile.
+public class ProviderScheduler {
+
+    private static final double MIN_INTERVAL_FACTOR = 0.5;
+    private static final double MAX_INTERVAL_FACTOR = 4;
+    private static final double TIGHTEN_FACTOR = 0.75;
+    private static final double RELAX_FACTOR = 1.25;
+    private static final double JITTER = 0.1;
+    private static final long STARTUP_SPREAD_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    private final AppConfig config;
+    private final List<ProviderState> providers = new ArrayList<>();
+    private final SeenLinks seenLinks;
+    private final JobSink sink;
+    private final ActiveWindow activeWindow;
+
+    private final DelayQueue<Timer> timers = new DelayQueue<>();
+    private final ExecutorService runners;
+    private final Thread dispatcher;
+    private volatile boolean stopped;
+
+    public ProviderScheduler(AppConfig config, List<JobsProvider> providers, SeenLinks seenLinks, JobSink sink,
+                             ActiveWindow activeWindow) {
+        this.config = config;
+        this.seenLinks = seenLinks;
+        this.sink = sink;
+        this.activeWindow = activeWindow;
+        for (JobsProvider provider : providers) {
+            this.providers.add(new ProviderState(provider,
+                    TimeUnit.MINUTES.toMillis(config.getProviderIntervalMinutes(provider.getName()))));
+        }
+
+        int maxConcurrentRuns = config.isConcurrentProviders() ? config.getProviderThreads() : 1;
+        this.runners = Executors.newFixedThreadPool(maxConcurrentRuns, new ProviderThreadFactory());
+        this.dispatcher = new Thread(this::dispatch, "provider-scheduler");
+        this.dispatcher.setDaemon(true);
+    }
+
+    // Every provider runs once shortly after starting, then follows its own interval
+    public void start() {
+        for (ProviderState state : providers) {
+            System.out.println("Provider " + state.name + " every " +
+                    TimeUnit.MILLISECONDS.toMinutes(state.baseMillis) + " minutes");
+            schedule(ThreadLocalRandom.current().nextLong(STARTUP_SPREAD_MILLIS), () -> run(state));
+        }
+        dispatcher.start();
+    }
+
+    public void stop() {
+        stopped = true;
+        dispatcher.interrupt();
+        timers.clear();
+        runners.shutdownNow();
+    }
+
+    private void dispatch() {
+        try {
+            while (!stopped) {
+                timers.take().action.run();
+            }
+        } catch (InterruptedException e) {
+            // Stopped
+        }
+    }
+
+    private void schedule(long delayMillis, Runnable action) {
+        if (!stopped) {
+            timers.add(new Timer(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis), action));
+        }
+    }
+
+    // A provider is only rescheduled when its run ends, so it never runs twice at the same time. A run that is
+    // cancelled but stuck inside Selenium therefore delays its next one until it actually returns.
+    private void run(ProviderState state) {
+        if (deferredToActiveWindow(state)) {
+            return;
+        }
+
+        AtomicInteger fetched = new AtomicInteger();
+        AtomicInteger unseen = new AtomicInteger();
+        AtomicReference<FutureTask<Void>> self = new AtomicReference<>();
+        int timeoutSeconds = config.getProviderTimeoutSeconds(state.name);
+
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            // The deadline counts from here, time spent waiting for a free runner is not the provider's
+            FutureTask<Void> running = self.get();
+            schedule(TimeUnit.SECONDS.toMillis(timeoutSeconds), () -> {
+                if (!running.isDone()) {
+                    running.cancel(true);
+                    System.err.println("Provider " + state.name + " cancelled: no result within " +
+                            timeoutSeconds + "s");
+                }
+            });
+
+            boolean succeeded = false;
+            boolean skipped = false;
+            long runStartNanos = System.nanoTime();
+            ProviderRunEvent event = ProviderRunEvent.begin(state.name);
+            ProviderContext.set(state.name);
+            try {
+                state.provider.streamJobs(seenLinks, new JobSink() {
+                    @Override
+                    public void accept(Job job) {
+                        fetched.incrementAndGet();
+                        Metrics.JOBS_FETCHED.labels(state.name).increment();
+                        if (!seenLinks.contains(job.getLink())) {
+                            unseen.incrementAndGet();
+                        }
+                        sink.accept(job.withProvider(state.name));
+                    }
+
+                    @Override
+                    public void seen(String link) {
+                        sink.seen(link);
+                    }
+                });
+                succeeded = true;
+                System.out.println("Provider " + state.name + " returned " + fetched.get() + " job(s), " +
+                        unseen.get() + " unseen, in " + elapsedSeconds(runStartNanos) + "s");
+            } catch (ProviderSkippedException e) {
+                skipped = true;
+                System.out.println("Provider " + state.name + " skipped: " + e.getMessage());
+            } catch (Exception e) {
+                System.err.println("Provider " + state.name + " failed: " + e);
+            } finally {
+                ProviderContext.clear();
+                event.fetched = fetched.get();
+                event.unseen = unseen.get();
+                event.succeeded = succeeded;
+                event.commit();
+                long elapsedNanos = System.nanoTime() - runStartNanos;
+                Metrics.PROVIDER_RUN_SECONDS.labels(state.name).recordNanos(elapsedNanos);
+                FlightRecording.runFinished(state.name, elapsedNanos);
+                if (!succeeded && !skipped) {
+                    Metrics.PROVIDER_FAILURES.labels(state.name).increment();
+                }
+                finished(state, succeeded, skipped, unseen.get());
+            }
+            return null;
+        });
+
+        self.set(task);
+
+        try {
+            runners.execute(task);
+        } catch (RuntimeException e) {
+            // Pool shut down by stop()
+        }
+    }
+
+    // With catch-up the run happens right when the window opens (spread over a few seconds),
+    // otherwise one interval after that
+    private boolean deferredToActiveWindow(ProviderState state) {
+        Instant now = Instant.now();
+        Instant opens = activeWindow.nextActive(now);
+        if (opens.equals(now)) {
+            return false;
+        }
+
+        long delay = Duration.between(now, opens).toMillis() + (config.isQuietCatchUp()
+                ? ThreadLocalRandom.current().nextLong(STARTUP_SPREAD_MILLIS)
+                : state.intervalMillis);
+        System.out.println("Provider " + state.name + " paused until " +
+                now.plusMillis(delay).atZone(ZoneId.systemDefault()).toLocalDateTime().withNano(0));
+        schedule(delay, () -> run(state));
+        return true;
+    }
+
+    // A skipped run keeps the interval as it is: it says nothing about the site's yield or health
+    private void finished(ProviderState state, boolean succeeded, boolean skipped, int unseen) {
+        if (stopped) {
+            return;
+        }
+
+        long delay;
+        int failures;
+        synchronized (state) {
+            if (skipped) {
+                delay = state.intervalMillis;
+            } else if (succeeded) {
+                state.failures = 0;
+                if (config.isAdaptiveProviderIntervals()) {
+                    double factor = unseen > 0 ? TIGHTEN_FACTOR : RELAX_FACTOR;
+                    state.intervalMillis = clamp((long) (state.intervalMillis * factor), state);
+                }
+                delay = state.intervalMillis;
+            } else {
+                state.failures++;
+                delay = clamp(state.intervalMillis << Math.min(state.failures, 10), state);
+            }
+            failures = state.failures;
+        }
+
+        delay = jittered(delay);
+        System.out.println("Provider " + state.name + " next run in " + TimeUnit.MILLISECONDS.toMinutes(delay) +
+                " minutes" + (succeeded || skipped ? "" : " (failure " + failures + ")"));
+        schedule(delay, () -> run(state));
+    }
+
+    private static long clamp(long intervalMillis, ProviderState state) {
+        long min = (long) (state.baseMillis * MIN_INTERVAL_FACTOR);
+        long max = (long) (state.baseMillis * MAX_INTERVAL_FACTOR);
+        return Math.max(min, Math.min(max, intervalMillis));
+    }
+
+    private static long jittered(long delayMillis) {
+        double jitter = ThreadLocalRandom.current().nextDouble(-JITTER, JITTER);
+        return Math.max(0, (long) (delayMillis * (1 + jitter)));
+    }
+
+    private static long elapsedSeconds(long startNanos) {
+        return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos);
+    }
+
+    private static final class ProviderState {
+        final JobsProvider provider;
+        final String name;
+        final long baseMillis;
+
+        // Guarded by this
+        long intervalMillis;
+        int failures;
+
+        ProviderState(JobsProvider provider, long baseMillis) {
+            this.provider = provider;
+            this.name = provider.getName();
+            this.baseMillis = baseMillis;
+            this.intervalMillis = baseMillis;
+        }
+    }
+
+    private static final class Timer implements Delayed {
+        final long dueNanos;
+        final Runnable action;
+
+        Timer(long dueNanos, Runnable action) {
+            this.dueNanos = dueNanos;
+            this.action = action;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueNanos, ((Timer) other).dueNanos);
+        }
+    }
+
+    private static class ProviderThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "provider-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
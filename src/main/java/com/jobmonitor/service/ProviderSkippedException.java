@@ -0,0 +1,12 @@
+package com.jobmonitor.service;
+
+// A run that ended without touching the site, e.g. while the provider's circuit is open.
+// The scheduler neither counts it as a failure nor treats it as a run that found nothing.
+public class ProviderSkippedException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    public ProviderSkippedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,98 @@
+package com.jobmonitor.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+
+// Caps the number of paid API requests per calendar day, e.g. the Custom Search daily quota.
+// The day is counted in the zone the provider resets its quota in. With a file the count is saved on every
+// request and read back on start, so a restart does not hand out the day's quota a second time.
+public class RequestBudget {
+
+    private final int dailyLimit;
+    private final Clock clock;
+    // Null keeps the count in memory only
+    private final Path file;
+
+    // Guarded by this
+    private LocalDate day;
+    private int used;
+
+    public RequestBudget(int dailyLimit, ZoneId zone, Path file) {
+        this(dailyLimit, Clock.system(zone), file);
+    }
+
+    RequestBudget(int dailyLimit, Clock clock, Path file) {
+        this.dailyLimit = dailyLimit;
+        this.clock = clock;
+        this.file = file;
+        load();
+    }
+
+    public synchronized boolean tryAcquire() {
+        LocalDate today = today();
+        if (!today.equals(day)) {
+            day = today;
+            used = 0;
+        }
+
+        if (used >= dailyLimit) {
+            return false;
+        }
+        used++;
+        save();
+        return true;
+    }
+
+    // Hands back a request taken today that turned out not to be needed
+    public synchronized void release() {
+        if (today().equals(day) && used > 0) {
+            used--;
+            save();
+        }
+    }
+
+    synchronized int used() {
+        return today().equals(day) ? used : 0;
+    }
+
+    private LocalDate today() {
+        return LocalDate.now(clock);
+    }
+
+    // "<day> <requests used>"
+    private void load() {
+        if (file == null || !Files.exists(file)) {
+            return;
+        }
+        try {
+            String[] parts = Files.readString(file, StandardCharsets.UTF_8).trim().split(" ");
+            day = LocalDate.parse(parts[0]);
+            used = Integer.parseInt(parts[1]);
+        } catch (IOException | DateTimeParseException | NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Error reading request budget " + file + ", starting the day over: " + e.getMessage());
+            day = null;
+            used = 0;
+        }
+    }
+
+    private void save() {
+        if (file == null) {
+            return;
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.writeString(temporary, day + " " + used, StandardCharsets.UTF_8);
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("Error saving request budget " + file + ": " + e.getMessage());
+        }
+    }
+}
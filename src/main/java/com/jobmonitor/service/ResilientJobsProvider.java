@@ -0,0 +1,183 @@
+package com.jobmonitor.service;
+
+import com.jobmonitor.config.AppConfig;
+import com.jobmonitor.http.HttpStatusException;
+import com.jobmonitor.model.Job;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Decorates a provider with retries and a circuit breaker.
+// Transient errors (network, throttling and 5xx statuses, Selenium timeouts and lost sessions) are retried
+// with jittered exponential backoff; anything else, such as a changed page layout, fails at once.
+// Outcomes of the last runs form a failure-rate window: once enough of them failed the circuit opens and
+// runs are skipped without touching the site, reported as a ProviderSkippedException. After the open period one trial run is let through (half open),
+// success closes the circuit, failure opens it again for twice as long.
+public class ResilientJobsProvider implements JobsProvider {
+
+    private static final long RETRY_BASE_MILLIS = TimeUnit.SECONDS.toMillis(5);
+    private static final int MAX_OPEN_FACTOR = 8;
+    private static final int MIN_RUNS = 5;
+
+    private enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final JobsProvider delegate;
+    private final int retries;
+    private final int failureThresholdPercent;
+    private final long openMillis;
+    private final Clock clock;
+
+    // Guarded by this
+    private final boolean[] outcomes;
+    private int recorded;
+    private int next;
+    private State state = State.CLOSED;
+    private long openUntilMillis;
+    private int consecutiveOpenings;
+
+    public ResilientJobsProvider(JobsProvider delegate, AppConfig config) {
+        this(delegate, config, Clock.systemUTC());
+    }
+
+    // clock lets tests move past the open period without waiting
+    ResilientJobsProvider(JobsProvider delegate, AppConfig config, Clock clock) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.retries = config.getProviderRetries();
+        this.failureThresholdPercent = config.getCircuitFailureRatePercent();
+        this.openMillis = TimeUnit.MINUTES.toMillis(config.getCircuitOpenMinutes());
+        this.outcomes = new boolean[Math.max(1, config.getCircuitWindow())];
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public List<Job> fetchJobs() throws Exception {
+        return fetchJobs(SeenLinks.NONE);
+    }
+
+    @Override
+    public List<Job> fetchJobs(SeenLinks seenLinks) throws Exception {
+        List<Job> jobs = new ArrayList<>();
+        streamJobs(seenLinks, jobs::add);
+        return jobs;
+    }
+
+    // A retried run may deliver some jobs twice, the pipeline drops repeated links
+    @Override
+    public void streamJobs(SeenLinks seenLinks, JobSink sink) throws Exception {
+        allowRun();
+
+        int attempts = isHalfOpen() ? 1 : retries + 1;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                delegate.streamJobs(seenLinks, sink);
+                recordOutcome(true);
+                return;
+            } catch (InterruptedException e) {
+                // Cancelled by the scheduler's deadline, a hang counts as a failure
+                recordOutcome(false);
+                throw e;
+            } catch (Exception e) {
+                if (attempt >= attempts || !isTransient(e)) {
+                    recordOutcome(false);
+                    throw e;
+                }
+
+                long backoff = RETRY_BASE_MILLIS << (attempt - 1);
+                long delay = ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1);
+                System.err.println("Provider " + getName() + " attempt " + attempt + " failed (" + e +
+                        "), retrying in " + TimeUnit.MILLISECONDS.toSeconds(delay) + "s");
+                Thread.sleep(delay);
+            }
+        }
+    }
+
+    private synchronized void allowRun() throws ProviderSkippedException {
+        if (state == State.OPEN) {
+            long now = clock.millis();
+            if (now < openUntilMillis) {
+                throw new ProviderSkippedException("circuit open for another " +
+                        TimeUnit.MILLISECONDS.toMinutes(openUntilMillis - now) + " minutes");
+            }
+            state = State.HALF_OPEN;
+            System.out.println("Provider " + getName() + " circuit half open, trying one run");
+        }
+    }
+
+    private synchronized boolean isHalfOpen() {
+        return state == State.HALF_OPEN;
+    }
+
+    private synchronized void recordOutcome(boolean success) {
+        if (state == State.HALF_OPEN) {
+            if (success) {
+                System.out.println("Provider " + getName() + " circuit closed");
+                state = State.CLOSED;
+                consecutiveOpenings = 0;
+                recorded = 0;
+                next = 0;
+            } else {
+                open("the trial run failed");
+            }
+            return;
+        }
+
+        outcomes[next] = success;
+        next = (next + 1) % outcomes.length;
+        recorded = Math.min(recorded + 1, outcomes.length);
+
+        // A few runs are needed before judging, one early failure is not a failure rate
+        if (recorded >= Math.min(MIN_RUNS, outcomes.length) && failurePercent() >= failureThresholdPercent) {
+            open(failurePercent() + "% of the last " + recorded + " run(s) failed");
+        }
+    }
+
+    private void open(String reason) {
+        long duration = openMillis * Math.min(MAX_OPEN_FACTOR, 1L << consecutiveOpenings);
+        consecutiveOpenings++;
+        state = State.OPEN;
+        openUntilMillis = clock.millis() + duration;
+        System.err.println("Provider " + getName() + " circuit open for " +
+                TimeUnit.MILLISECONDS.toMinutes(duration) + " minutes: " + reason);
+    }
+
+    private int failurePercent() {
+        if (recorded == 0) {
+            return 100;
+        }
+        int failures = 0;
+        for (int i = 0; i < recorded; i++) {
+            if (!outcomes[i]) {
+                failures++;
+            }
+        }
+        return 100 * failures / recorded;
+    }
+
+    // Walks the whole cause chain, a worker's timeout may arrive wrapped in any number of exceptions
+    static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof HttpStatusException) {
+                return ((HttpStatusException) cause).isTransient();
+            }
+            if (cause instanceof IOException
+                    || cause instanceof TimeoutException
+                    || cause instanceof StaleElementReferenceException
+                    || cause instanceof NoSuchSessionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,25 @@
+package com.jobmonitor.service;
+
+// Read-only view of every link already notified, what providers and the filter check new jobs against
+public interface SeenLinks {
+
+    SeenLinks NONE = new SeenLinks() {
+        @Override
+        public boolean contains(String link) {
+            return false;
+        }
+
+        @Override
+        public int size() {
+            return 0;
+        }
+    };
+
+    boolean contains(String link);
+
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+}
@@ -0,0 +1,234 @@
+package com.jobmonitor.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Aho-Corasick automaton over a fixed set of terms, each tagged with a category (0-31).
+// One pass over the text finds every category, case is folded per char so no lowercased copy is made.
+// With wholeWords short or all-caps terms ("IT", "QA", "VP") only match as whole words, so "IT" matches
+// "IT support" but not "with". Other terms starting with a letter match at the start of a word and may run on,
+// so "lead" matches "Team Leader" and "engineer" matches "engineers", but "lead" does not match "mislead".
+// Terms starting with anything else ("3+") match anywhere.
+public class TermMatcher {
+
+    private static final int ROOT = 0;
+
+    private final String[] terms;
+    private final int[] termCategories;
+    // Per term, set only with wholeWords
+    private final boolean[] wordStart;
+    private final boolean[] wordEnd;
+
+    // Per node: sorted transition chars and their target nodes
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] failure;
+    // Per node: ids of all terms ending here, including those reached through failure links
+    private final int[][] outputs;
+
+    private TermMatcher(List<String> terms, List<Integer> categories, boolean wholeWords) {
+        this.terms = terms.toArray(new String[0]);
+        this.termCategories = categories.stream().mapToInt(Integer::intValue).toArray();
+        this.wordStart = new boolean[this.terms.length];
+        this.wordEnd = new boolean[this.terms.length];
+        if (wholeWords) {
+            for (int id = 0; id < this.terms.length; id++) {
+                String term = this.terms[id];
+                wordStart[id] = Character.isLetter(term.charAt(0));
+                wordEnd[id] = isShortOrAcronym(term) && Character.isLetter(term.charAt(term.length() - 1));
+            }
+        }
+
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> nodeTerms = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        nodeTerms.add(new ArrayList<>());
+
+        for (int id = 0; id < this.terms.length; id++) {
+            int node = ROOT;
+            for (char c : this.terms[id].toCharArray()) {
+                char folded = Character.toLowerCase(c);
+                Integer next = trie.get(node).get(folded);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    nodeTerms.add(new ArrayList<>());
+                    trie.get(node).put(folded, next);
+                }
+                node = next;
+            }
+            nodeTerms.get(node).add(id);
+        }
+
+        int size = trie.size();
+        this.edgeChars = new char[size][];
+        this.edgeTargets = new int[size][];
+        for (int node = 0; node < size; node++) {
+            TreeMap<Character, Integer> edges = trie.get(node);
+            edgeChars[node] = new char[edges.size()];
+            edgeTargets[node] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                edgeChars[node][i] = edge.getKey();
+                edgeTargets[node][i] = edge.getValue();
+                i++;
+            }
+        }
+
+        this.failure = new int[size];
+        this.outputs = new int[size][];
+        outputs[ROOT] = toArray(nodeTerms.get(ROOT));
+
+        // Breadth first, so a node's failure target is complete before the node itself
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : edgeTargets[ROOT]) {
+            failure[child] = ROOT;
+            outputs[child] = toArray(nodeTerms.get(child));
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int i = 0; i < edgeChars[node].length; i++) {
+                char c = edgeChars[node][i];
+                int child = edgeTargets[node][i];
+
+                int fallback = failure[node];
+                while (fallback != ROOT && transition(fallback, c) < 0) {
+                    fallback = failure[fallback];
+                }
+                int target = transition(fallback, c);
+                failure[child] = target >= 0 ? target : ROOT;
+
+                outputs[child] = concat(toArray(nodeTerms.get(child)), outputs[failure[child]]);
+                queue.add(child);
+            }
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // Bit i is set when at least one term of category i occurs in the text
+    public int matchCategories(CharSequence text) {
+        return scan(text, null);
+    }
+
+    public boolean containsAny(CharSequence text) {
+        return matchCategories(text) != 0;
+    }
+
+    // Distinct terms of the given category that occur in the text, in configuration order
+    public List<String> findTerms(CharSequence text, int category) {
+        Set<Integer> found = new LinkedHashSet<>();
+        scan(text, found);
+
+        List<String> matches = new ArrayList<>();
+        found.stream()
+                .sorted()
+                .filter(id -> termCategories[id] == category)
+                .forEach(id -> matches.add(terms[id]));
+        return matches;
+    }
+
+    private int scan(CharSequence text, Set<Integer> found) {
+        int categories = 0;
+        int node = ROOT;
+        int length = text.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+
+            int next = transition(node, c);
+            while (next < 0 && node != ROOT) {
+                node = failure[node];
+                next = transition(node, c);
+            }
+            node = next >= 0 ? next : ROOT;
+
+            for (int id : outputs[node]) {
+                if ((wordStart[id] || wordEnd[id]) && !isAtWordBoundaries(text, i, id)) {
+                    continue;
+                }
+                categories |= 1 << termCategories[id];
+                if (found != null) {
+                    found.add(id);
+                }
+            }
+        }
+        return categories;
+    }
+
+    private boolean isAtWordBoundaries(CharSequence text, int end, int id) {
+        int start = end - terms[id].length() + 1;
+
+        if (wordStart[id] && start > 0 && Character.isLetterOrDigit(text.charAt(start - 1))) {
+            return false;
+        }
+        return !wordEnd[id] || end + 1 >= text.length() || !Character.isLetterOrDigit(text.charAt(end + 1));
+    }
+
+    // Such terms are too likely to occur inside longer words, e.g. "IT" in "with", "QA" in "Qatar"
+    private static boolean isShortOrAcronym(String term) {
+        int letters = 0;
+        boolean allUpperCase = true;
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if (Character.isLetter(c)) {
+                letters++;
+                allUpperCase &= Character.isUpperCase(c);
+            }
+        }
+        return letters > 0 && (letters <= 3 || allUpperCase);
+    }
+
+    private int transition(int node, char c) {
+        int index = Arrays.binarySearch(edgeChars[node], c);
+        return index >= 0 ? edgeTargets[node][index] : -1;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] concat(int[] first, int[] second) {
+        int[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    public static class Builder {
+        private final List<String> terms = new ArrayList<>();
+        private final List<Integer> categories = new ArrayList<>();
+        private boolean wholeWords;
+
+        public Builder add(int category, List<String> terms) {
+            if (category < 0 || category >= Integer.SIZE) {
+                throw new IllegalArgumentException("Category must be between 0 and 31: " + category);
+            }
+            for (String term : terms) {
+                if (!term.isEmpty()) {
+                    this.terms.add(term);
+                    this.categories.add(category);
+                }
+            }
+            return this;
+        }
+
+        public Builder wholeWords(boolean wholeWords) {
+            this.wholeWords = wholeWords;
+            return this;
+        }
+
+        public TermMatcher build() {
+            return new TermMatcher(terms, categories, wholeWords);
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.jobmonitor.service;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.jobmonitor.http.HttpCache;
+import com.jobmonitor.http.HttpClients;
+import com.jobmonitor.http.HttpStatusException;
+import com.jobmonitor.model.Job;
+import com.jobmonitor.storage.DescriptionCache;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Reads *.myworkdayjobs.com career sites through the Workday CXS JSON endpoints instead of a browser.
+// The careers URL is the same one a person would open, e.g.
+// https://nvidia.wd5.myworkdayjobs.com/en-US/NVIDIAExternalCareerSite?locationHierarchy1=...
+// its query parameters become the applied search facets.
+public class WorkdayJobsProvider implements JobsProvider {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int MAX_PAGES = 50;
+
+    // Query parameters on career site URLs that are not search facets
+    private static final List<String> NON_FACET_PARAMETERS = List.of("source", "q");
+
+    // Short parameter names of shared career site links, e.g. Red Hat's ?a=<country id>, and the facets they stand for
+    private static final Map<String, String> FACET_ALIASES = Map.of("a", "locationCountry");
+
+    private static final Pattern LOCALE_SEGMENT = Pattern.compile("[a-z]{2}-[A-Z]{2}");
+    private static final Pattern DAYS_AGO = Pattern.compile("(\\d+)\\+? Days? Ago", Pattern.CASE_INSENSITIVE);
+
+    private final String name;
+    private final JobFilter jobFilter;
+    private final HttpClient httpClient;
+    private final HttpCache httpCache;
+
+    private final String linkBase;
+    private final String apiBase;
+    private final Map<String, List<String>> appliedFacets;
+
+    private final int maxPostedDaysAgo;
+    private final boolean validateDescriptions;
+    private final DescriptionCache descriptionCache;
+
+    public WorkdayJobsProvider(String name, String careersUrl, JobFilter jobFilter,
+                               int maxPostedDaysAgo, boolean validateDescriptions, DescriptionCache descriptionCache,
+                               HttpCache httpCache) {
+        this.name = name;
+        this.jobFilter = jobFilter;
+        this.maxPostedDaysAgo = maxPostedDaysAgo;
+        this.validateDescriptions = validateDescriptions;
+        this.descriptionCache = descriptionCache;
+        this.httpClient = HttpClients.shared();
+        this.httpCache = httpCache;
+
+        URI uri = URI.create(careersUrl);
+        String host = uri.getHost();
+        String tenant = host.substring(0, host.indexOf('.'));
+        List<String> segments = pathSegments(uri.getPath());
+        String site = segments.get(segments.size() - 1);
+
+        String origin = uri.getScheme() + "://" + uri.getAuthority();
+
+        // Public job links keep the career site path (including its locale) so they match links stored by the scrapers
+        this.linkBase = origin + uri.getPath().replaceAll("/+$", "");
+        this.apiBase = origin + "/wday/cxs/" + tenant + "/" + site;
+        this.appliedFacets = parseFacets(uri.getRawQuery());
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public List<Job> fetchJobs() throws Exception {
+        return fetchJobs(SeenLinks.NONE);
+    }
+
+    @Override
+    public List<Job> fetchJobs(SeenLinks seenLinks) throws Exception {
+        List<Job> jobs = new ArrayList<>();
+        streamJobs(seenLinks, jobs::add);
+        return jobs;
+    }
+
+    // Emits recent postings that pass the title (and optionally description) filter and are not in seenLinks,
+    // one search page at a time
+    @Override
+    public void streamJobs(SeenLinks seenLinks, JobSink sink) throws Exception {
+        int total = 0;
+
+        for (int page = 0; page < MAX_PAGES; page++) {
+            int offset = page * PAGE_SIZE;
+            JsonObject json = post(apiBase + "/jobs", buildSearchBody(offset));
+
+            // Workday only reports the total on the first page
+            if (page == 0) {
+                total = json.has("total") ? json.get("total").getAsInt() : 0;
+            }
+
+            JsonArray postings = json.has("jobPostings") ? json.getAsJsonArray("jobPostings") : new JsonArray();
+            List<Job> recent = new ArrayList<>();
+            for (JsonElement element : postings) {
+                JsonObject posting = element.getAsJsonObject();
+                if (isRecent(posting)) {
+                    recent.add(toJob(posting));
+                }
+            }
+
+            List<Job> candidates = jobFilter.filterByTitle(recent);
+            List<Job> newJobs = new ArrayList<>();
+            for (Job job : candidates) {
+                if (!seenLinks.contains(job.getLink())) {
+                    newJobs.add(job);
+                } else {
+                    sink.seen(job.getLink());
+                }
+            }
+
+            if (validateDescriptions) {
+                newJobs = filterByDescription(newJobs);
+            }
+            newJobs.forEach(sink::accept);
+
+            // Workday sorts by relevance and the CXS search takes no date sort, so a page of known jobs does not
+            // mean the later pages hold no new ones: paging only ends with the results
+            if (postings.size() < PAGE_SIZE || offset + PAGE_SIZE >= total) {
+                break;
+            }
+        }
+    }
+
+    private String buildSearchBody(int offset) {
+        JsonObject facets = new JsonObject();
+        appliedFacets.forEach((facet, values) -> {
+            JsonArray array = new JsonArray();
+            values.forEach(array::add);
+            facets.add(facet, array);
+        });
+
+        JsonObject body = new JsonObject();
+        body.add("appliedFacets", facets);
+        body.addProperty("limit", PAGE_SIZE);
+        body.addProperty("offset", offset);
+        body.addProperty("searchText", "");
+        return body.toString();
+    }
+
+    private boolean isRecent(JsonObject posting) {
+        if (!posting.has("postedOn")) {
+            return false;
+        }
+        return postedDaysAgo(posting.get("postedOn").getAsString()) <= maxPostedDaysAgo;
+    }
+
+    // "Posted Today", "Posted Yesterday", "Posted 3 Days Ago", "Posted 30+ Days Ago"
+    private static int postedDaysAgo(String postedOn) {
+        String text = postedOn.toLowerCase();
+        if (text.contains("today")) {
+            return 0;
+        }
+        if (text.contains("yesterday")) {
+            return 1;
+        }
+
+        Matcher matcher = DAYS_AGO.matcher(postedOn);
+        if (!matcher.find()) {
+            return Integer.MAX_VALUE;
+        }
+        int days = Integer.parseInt(matcher.group(1));
+        return postedOn.contains("+") ? days + 1 : days;
+    }
+
+    private Job toJob(JsonObject posting) {
+        String title = posting.get("title").getAsString();
+        String link = linkBase + posting.get("externalPath").getAsString();
+        String location = posting.has("locationsText") ? posting.get("locationsText").getAsString() : "";
+
+        return new Job(link, title, location);
+    }
+
+    private List<Job> filterByDescription(List<Job> jobs) throws IOException, InterruptedException {
+        // Cached descriptions are complete already, the rest are requested concurrently
+        List<CompletableFuture<String>> descriptions = new ArrayList<>();
+        for (Job job : jobs) {
+            String cached = descriptionCache.get(job.getLink());
+            descriptions.add(cached != null
+                    ? CompletableFuture.completedFuture(cached)
+                    : fetchDescription(job).thenApply(text -> {
+                        String description = job.getTitle() + "\n" + text;
+                        descriptionCache.put(job.getLink(), description);
+                        return description;
+                    }));
+        }
+
+        List<Job> filteredJobs = new ArrayList<>();
+        try {
+            for (int i = 0; i < jobs.size(); i++) {
+                Job job = jobs.get(i);
+                String description = HttpClients.await(descriptions.get(i));
+
+                if (jobFilter.validateDescription(description)) {
+                    filteredJobs.add(job);
+                }
+            }
+        } finally {
+            descriptions.forEach(description -> description.cancel(true));
+        }
+        return filteredJobs;
+    }
+
+    private CompletableFuture<String> fetchDescription(Job job) {
+        String externalPath = job.getLink().substring(linkBase.length());
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(apiBase + externalPath))
+                .timeout(HttpClients.REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        // Detail pages are GETs and go through the HTTP cache, the search itself is a POST
+        return httpCache.sendAsync(request)
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new HttpStatusException("Workday detail request", response.statusCode());
+                    }
+                    JsonObject json = JsonParser.parseString(response.body()).getAsJsonObject();
+                    JsonObject info = json.getAsJsonObject("jobPostingInfo");
+                    return info != null && info.has("jobDescription")
+                            ? htmlToText(info.get("jobDescription").getAsString())
+                            : "";
+                });
+    }
+
+    private JsonObject post(String url, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(HttpClients.REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+
+        if (response.statusCode() != 200) {
+            throw new HttpStatusException("Workday search request", response.statusCode());
+        }
+
+        return JsonParser.parseString(response.body()).getAsJsonObject();
+    }
+
+    private static String htmlToText(String html) {
+        return html
+                .replaceAll("(?i)<br\\s*/?>|</p>|</li>|</h\\d>", "\n")
+                .replaceAll("<[^>]+>", "")
+                .replace("&nbsp;", " ")
+                .replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&quot;", "\"")
+                .replace("&#39;", "'")
+                .replace("&amp;", "&");
+    }
+
+    private static List<String> pathSegments(String path) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty() && !LOCALE_SEGMENT.matcher(segment).matches()) {
+                segments.add(segment);
+            }
+        }
+        if (segments.isEmpty()) {
+            throw new IllegalArgumentException("Workday careers URL has no site path: " + path);
+        }
+        return segments;
+    }
+
+    private static Map<String, List<String>> parseFacets(String rawQuery) {
+        Map<String, List<String>> facets = new LinkedHashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return facets;
+        }
+
+        for (String parameter : rawQuery.split("&")) {
+            String[] parts = parameter.split("=", 2);
+            if (parts.length != 2 || NON_FACET_PARAMETERS.contains(parts[0])) {
+                continue;
+            }
+            String facet = decode(parts[0]);
+            facets.computeIfAbsent(FACET_ALIASES.getOrDefault(facet, facet), key -> new ArrayList<>())
+                    .add(decode(parts[1]));
+        }
+        return facets;
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+}
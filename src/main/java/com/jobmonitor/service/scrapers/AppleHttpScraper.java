@@ -0,0 +1,245 @@
+package com.jobmonitor.service.scrapers;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.jobmonitor.http.HttpCache;
+import com.jobmonitor.http.HttpClients;
+import com.jobmonitor.http.HttpStatusException;
+import com.jobmonitor.model.Job;
+import com.jobmonitor.service.JobFilter;
+import com.jobmonitor.service.JobSink;
+import com.jobmonitor.service.JobsProvider;
+import com.jobmonitor.service.SeenLinks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// Reads the search result data jobs.apple.com embeds in its search pages, without a browser.
+// Falls back to the Selenium scraper when the page layout is not recognised.
+public class AppleHttpScraper implements JobsProvider {
+
+    private static final String JOB_DETAILS_URL = "https://jobs.apple.com/en-il/details/";
+    private static final String HYDRATION_MARKER = "window.__staticRouterHydrationData = JSON.parse(";
+    private static final String USER_AGENT = "Mozilla/5.0 (X11; Linux x86_64; rv:128.0) Gecko/20100101 Firefox/128.0";
+
+    private final JobFilter filter;
+    private final JobsProvider browserFallback;
+    private final HttpCache httpCache;
+    private final String searchUrl;
+
+    public AppleHttpScraper(JobFilter filter, JobsProvider browserFallback, HttpCache httpCache) {
+        this(filter, browserFallback, httpCache, AppleScraper.APPLE_JOBS_URL);
+    }
+
+    // searchUrl lets tests point the scraper at recorded pages
+    AppleHttpScraper(JobFilter filter, JobsProvider browserFallback, HttpCache httpCache, String searchUrl) {
+        this.filter = filter;
+        this.browserFallback = browserFallback;
+        this.httpCache = httpCache;
+        this.searchUrl = searchUrl;
+    }
+
+    @Override
+    public String getName() {
+        return "apple";
+    }
+
+    @Override
+    public List<Job> fetchJobs() throws Exception {
+        return fetchJobs(SeenLinks.NONE);
+    }
+
+    @Override
+    public List<Job> fetchJobs(SeenLinks seenLinks) throws Exception {
+        return fetchJobs(seenLinks, job -> { });
+    }
+
+    // Jobs are delivered once every page is read, only links skipped as seen reach the sink while paging
+    @Override
+    public void streamJobs(SeenLinks seenLinks, JobSink sink) throws Exception {
+        for (Job job : fetchJobs(seenLinks, sink)) {
+            sink.accept(job);
+        }
+    }
+
+    private List<Job> fetchJobs(SeenLinks seenLinks, JobSink sink) throws Exception {
+        try {
+            return fetchAllPages(seenLinks, sink);
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            System.err.println("Apple search data unavailable, using browser: " + e.getMessage());
+            return browserFallback.fetchJobs(seenLinks);
+        }
+    }
+
+    private List<Job> fetchAllPages(SeenLinks seenLinks, JobSink sink) throws IOException, InterruptedException {
+        JsonArray firstPage = parseSearchResults(HttpClients.await(fetchPage(1)));
+        if (firstPage == null) {
+            throw new IllegalStateException("no search results found in page");
+        }
+
+        List<Job> candidates = teamCandidates(firstPage);
+        List<Job> jobs = new ArrayList<>(unseen(candidates, seenLinks, sink));
+
+        // Sorted by newest, so when the first page holds nothing new neither do the others
+        if (isWholePageKnown(candidates, seenLinks)) {
+            return jobs;
+        }
+
+        List<CompletableFuture<String>> pages = new ArrayList<>();
+        for (int page = 2; page <= AppleScraper.TOTAL_PAGES_TO_SCRAPE; page++) {
+            pages.add(fetchPage(page));
+        }
+
+        // Later pages may simply not exist, keep what was read so far
+        try {
+            for (CompletableFuture<String> page : pages) {
+                JsonArray results;
+                try {
+                    results = parseSearchResults(HttpClients.await(page));
+                } catch (IOException | HttpStatusException e) {
+                    System.err.println("Error fetching Apple search page: " + e.getMessage());
+                    break;
+                }
+                if (results == null || results.size() == 0) {
+                    break;
+                }
+                candidates = teamCandidates(results);
+                jobs.addAll(unseen(candidates, seenLinks, sink));
+
+                if (isWholePageKnown(candidates, seenLinks)) {
+                    break;
+                }
+            }
+        } finally {
+            pages.forEach(page -> page.cancel(true));
+        }
+        return jobs;
+    }
+
+    private CompletableFuture<String> fetchPage(int page) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(searchUrl + "&page=" + page))
+                .timeout(HttpClients.REQUEST_TIMEOUT)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept", "text/html")
+                .GET()
+                .build();
+
+        return httpCache.sendAsync(request)
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new HttpStatusException("Apple search request", response.statusCode());
+                    }
+                    return response.body();
+                });
+    }
+
+    private static JsonArray parseSearchResults(String html) {
+        int start = html.indexOf(HYDRATION_MARKER);
+        if (start < 0) {
+            return null;
+        }
+
+        String literal = readStringLiteral(html, start + HYDRATION_MARKER.length());
+        if (literal == null) {
+            return null;
+        }
+
+        // The data is a JSON document inside a JS string literal: unquote first, then parse
+        String document = JsonParser.parseString(literal).getAsString();
+        return findArray(JsonParser.parseString(document), "searchResults");
+    }
+
+    // Returns the quoted literal starting at index, quotes included, or null if it is not terminated
+    private static String readStringLiteral(String text, int index) {
+        if (index >= text.length() || text.charAt(index) != '"') {
+            return null;
+        }
+
+        for (int i = index + 1; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '"') {
+                return text.substring(index, i + 1);
+            }
+        }
+        return null;
+    }
+
+    private static JsonArray findArray(JsonElement element, String key) {
+        if (element.isJsonObject()) {
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                if (entry.getKey().equals(key) && entry.getValue().isJsonArray()) {
+                    return entry.getValue().getAsJsonArray();
+                }
+                JsonArray found = findArray(entry.getValue(), key);
+                if (found != null) {
+                    return found;
+                }
+            }
+        } else if (element.isJsonArray()) {
+            for (JsonElement child : element.getAsJsonArray()) {
+                JsonArray found = findArray(child, key);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Jobs of the target team that pass the title filter
+    private List<Job> teamCandidates(JsonArray results) {
+        List<Job> jobs = new ArrayList<>();
+
+        for (JsonElement element : results) {
+            JsonObject result = element.getAsJsonObject();
+            if (AppleScraper.TARGET_TEAM.equals(teamField(result, "teamName"))) {
+                jobs.add(new Job(buildLink(result), stringOrEmpty(result, "postingTitle"), "Apple"));
+            }
+        }
+        return filter.filterByTitle(jobs);
+    }
+
+    // Seen ones are reported to the sink, so their last-seen time moves although they are not fetched again
+    private static List<Job> unseen(List<Job> jobs, SeenLinks seenLinks, JobSink sink) {
+        List<Job> unseenJobs = new ArrayList<>();
+        for (Job job : jobs) {
+            if (!seenLinks.contains(job.getLink())) {
+                unseenJobs.add(job);
+            } else {
+                sink.seen(job.getLink());
+            }
+        }
+        return unseenJobs;
+    }
+
+    private static boolean isWholePageKnown(List<Job> candidates, SeenLinks seenLinks) {
+        return !candidates.isEmpty() && candidates.stream().allMatch(job -> seenLinks.contains(job.getLink()));
+    }
+
+    private String buildLink(JsonObject result) {
+        return JOB_DETAILS_URL + stringOrEmpty(result, "positionId") + "/" +
+                stringOrEmpty(result, "transformedPostingTitle") + "?team=" + teamField(result, "teamCode");
+    }
+
+    private static String teamField(JsonObject result, String key) {
+        JsonObject team = result.getAsJsonObject("team");
+        return team != null ? stringOrEmpty(team, key) : "";
+    }
+
+    private static String stringOrEmpty(JsonObject json, String key) {
+        JsonElement value = json.get(key);
+        return value != null && !value.isJsonNull() ? value.getAsString() : "";
+    }
+}
@@ -1,8 +1,9 @@
 package com.jobmonitor.service.scrapers;
 
+import com.jobmonitor.metrics.NavigationEvent;
+import com.jobmonitor.metrics.PaginationEvent;
 import com.jobmonitor.model.Job;
-import com.jobmonitor.selenium.BrowserType;
-import com.jobmonitor.selenium.WebDriverFactory;
+import com.jobmonitor.selenium.WebDriverPool;
 import com.jobmonitor.service.JobFilter;
 import com.jobmonitor.service.JobsProvider;
 import org.openqa.selenium.*;
@@ -16,7 +17,7 @@ import java.util.*;
 
 public class AppleScraper implements JobsProvider {
 
-    private static final String APPLE_JOBS_URL = "https://jobs.apple.com/en-il/search?sort=newest&location=israel-ISR";
+    static final String APPLE_JOBS_URL = "https://jobs.apple.com/en-il/search?sort=newest&location=israel-ISR";
 
     // Possible teams
     //    Machine Learning and AI
@@ -30,10 +31,10 @@ public class AppleScraper implements JobsProvider {
     //    Sales and Business Development
     //    Support and Service
     //    Students
-    private static final String TARGET_TEAM = "Software and Services";
+    static final String TARGET_TEAM = "Software and Services";
 
     // Total pages to Scrape
-    private static final int TOTAL_PAGES_TO_SCRAPE = 3;
+    static final int TOTAL_PAGES_TO_SCRAPE = 3;
     private static final int WAIT_TIMEOUT_SECONDS = 10;
 
     // XPath Selectors
@@ -43,11 +44,18 @@ public class AppleScraper implements JobsProvider {
     private static final String NEXT_PAGE_BUTTON = "//button[@aria-label='Next Page']";
 
     private final JobFilter filter;
+    private final WebDriverPool driverPool;
     private WebDriver driver;
     private WebDriverWait wait;
 
-    public AppleScraper(JobFilter filter) {
+    public AppleScraper(JobFilter filter, WebDriverPool driverPool) {
         this.filter = filter;
+        this.driverPool = driverPool;
+    }
+
+    @Override
+    public String getName() {
+        return "apple";
     }
 
     @Override
@@ -62,13 +70,13 @@ public class AppleScraper implements JobsProvider {
         }
     }
 
-    private void initializeDriver() {
-        driver = WebDriverFactory.createDriver(BrowserType.FIREFOX);
+    private void initializeDriver() throws InterruptedException {
+        driver = driverPool.checkout();
         wait = new WebDriverWait(driver, Duration.ofSeconds(WAIT_TIMEOUT_SECONDS));
     }
 
     private void navigateToJobsPage() {
-        driver.get(APPLE_JOBS_URL);
+        NavigationEvent.record(APPLE_JOBS_URL, () -> driver.get(APPLE_JOBS_URL));
     }
 
     private List<Job> scrapeMultiplePages() {
@@ -127,6 +135,10 @@ public class AppleScraper implements JobsProvider {
     }
 
     private boolean navigateToNextPage(List<WebElement> oldPageElements) {
+        return PaginationEvent.record(APPLE_JOBS_URL, () -> moveToNextPage(oldPageElements));
+    }
+
+    private boolean moveToNextPage(List<WebElement> oldPageElements) {
         if (!clickNextPageButton()) {
             return false;
         }
@@ -167,7 +179,7 @@ public class AppleScraper implements JobsProvider {
 
     private void closeDriver() {
         if (driver != null) {
-            driver.quit();
+            driverPool.checkin(driver);
             driver = null;
         }
     }
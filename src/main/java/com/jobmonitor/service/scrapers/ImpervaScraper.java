@@ -1,10 +1,15 @@
 package com.jobmonitor.service.scrapers;
 
+import com.jobmonitor.metrics.NavigationEvent;
+import com.jobmonitor.metrics.PaginationEvent;
+import com.jobmonitor.metrics.ProviderContext;
 import com.jobmonitor.model.Job;
-import com.jobmonitor.selenium.BrowserType;
-import com.jobmonitor.selenium.WebDriverFactory;
+import com.jobmonitor.selenium.WebDriverPool;
 import com.jobmonitor.service.JobFilter;
+import com.jobmonitor.service.JobSink;
 import com.jobmonitor.service.JobsProvider;
+import com.jobmonitor.service.SeenLinks;
+import com.jobmonitor.storage.DescriptionCache;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
@@ -14,27 +19,70 @@ import org.openqa.selenium.support.ui.WebDriverWait;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ImpervaScraper implements JobsProvider {
 
     private static final String CAREERS_URL = "https://careers.thalesgroup.com/global/en/search-results";
     private static final String ISRAEL = "Israel";
+    private static final long WORKER_STOP_SECONDS = 30;
+    private static final JobSink NO_SINK = job -> { };
 
     private WebDriver driver;
     private WebDriverWait wait;
 
     private final JobFilter filter;
+    private final WebDriverPool driverPool;
+    private final DescriptionCache descriptionCache;
+
+    // Number of browser sessions used to load job descriptions, including the main one
+    private final int descriptionParallelism;
 
     private int totalPages;
+    private SeenLinks seenLinks = SeenLinks.NONE;
+    private JobSink sink = NO_SINK;
 
-    public ImpervaScraper(JobFilter filter) {
+    public ImpervaScraper(JobFilter filter, WebDriverPool driverPool, int descriptionParallelism,
+                          DescriptionCache descriptionCache) {
         this.filter =filter;
+        this.driverPool = driverPool;
+        this.descriptionCache = descriptionCache;
+        this.descriptionParallelism = Math.max(1, descriptionParallelism);
+
+    }
 
+    @Override
+    public String getName() {
+        return "imperva";
+    }
+
+    @Override
+    public List<Job> fetchJobs() throws InterruptedException {
+        return fetchJobs(SeenLinks.NONE);
     }
 
     @Override
-    public List<Job> fetchJobs() {
-        this.driver = WebDriverFactory.createDriver(BrowserType.FIREFOX);
+    public List<Job> fetchJobs(SeenLinks seenLinks) throws InterruptedException {
+        return fetchJobs(seenLinks, NO_SINK);
+    }
+
+    // Jobs are delivered once descriptions are checked, only links skipped as seen reach the sink while paging
+    @Override
+    public void streamJobs(SeenLinks seenLinks, JobSink sink) throws InterruptedException {
+        for (Job job : fetchJobs(seenLinks, sink)) {
+            sink.accept(job);
+        }
+    }
+
+    private List<Job> fetchJobs(SeenLinks seenLinks, JobSink sink) throws InterruptedException {
+        this.seenLinks = seenLinks;
+        this.sink = sink;
+        this.driver = driverPool.checkout();
         this.wait = new WebDriverWait(driver, Duration.ofSeconds(10));
         try {
             navigateToCareersSite();
@@ -45,9 +93,11 @@ public class ImpervaScraper implements JobsProvider {
 
             return filteredJobs(jobs);
         } finally {
-            driver.quit();
+            driverPool.checkin(driver);
             driver = null;
             wait = null;
+            this.seenLinks = SeenLinks.NONE;
+            this.sink = NO_SINK;
         }
     }
 
@@ -61,17 +111,15 @@ public class ImpervaScraper implements JobsProvider {
         }
     }
 
-    private List<Job> filteredJobs(List<Job> jobs) {
-        List<Job> jobs1 = filter.filterByTitle(jobs);
-
-        List<Job> jobs2 = filterAllJobsByDescription(jobs1);
+    private List<Job> filteredJobs(List<Job> jobs) throws InterruptedException {
+        List<Job> jobs2 = filterAllJobsByDescription(jobs);
 
         printJobSummary(jobs2);
         return jobs2;
     }
 
     private void navigateToCareersSite() {
-        driver.get(CAREERS_URL);
+        NavigationEvent.record(CAREERS_URL, () -> driver.get(CAREERS_URL));
     }
 
     private void declineCookies() {
@@ -122,7 +170,17 @@ public class ImpervaScraper implements JobsProvider {
         List<Job> jobs = new ArrayList<>();
 
         for(int i = 0; i<totalPages;++i){
-            jobs.addAll(scrapeCurrentPage());
+            // The search sets no sort order, so a page of known jobs says nothing about the next one:
+            // every page is read, seenLinks only saves the description checks
+            List<Job> candidates = filter.filterByTitle(scrapeCurrentPage());
+
+            for (Job job : candidates) {
+                if (!seenLinks.contains(job.getLink())) {
+                    jobs.add(job);
+                } else {
+                    sink.seen(job.getLink());
+                }
+            }
 
             if(i!= totalPages -1){
                 goToNextPage();
@@ -149,29 +207,123 @@ public class ImpervaScraper implements JobsProvider {
         return jobs;
     }
 
-    private List<Job> filterAllJobsByDescription(List<Job> jobs){
-        List<Job> filteredJob = new ArrayList<>();
-        for(Job job: jobs){
-            driver.get(job.getLink());
+    private List<Job> filterAllJobsByDescription(List<Job> jobs) throws InterruptedException {
+        boolean[] valid = new boolean[jobs.size()];
+
+        // Cached descriptions are validated right away, only the rest need a page load
+        List<Integer> uncached = new ArrayList<>();
+        for (int i = 0; i < jobs.size(); i++) {
+            String description = descriptionCache.get(jobs.get(i).getLink());
+            if (description != null) {
+                valid[i] = filter.validateDescription(description);
+            } else {
+                uncached.add(i);
+            }
+        }
+        AtomicInteger nextJob = new AtomicInteger();
+
+        List<WebDriver> extraDrivers = checkoutExtraDrivers(Math.min(descriptionParallelism, uncached.size()) - 1);
+        ExecutorService executor = extraDrivers.isEmpty() ? null : Executors.newFixedThreadPool(extraDrivers.size());
+        List<Future<?>> workers = new ArrayList<>();
+        try {
+            for (WebDriver extraDriver : extraDrivers) {
+                workers.add(executor.submit(ProviderContext.wrap(
+                        () -> validateDescriptions(extraDriver, jobs, uncached, valid, nextJob))));
+            }
 
-            List<WebElement> elements = driver.findElements(By.xpath("//div[@class='jd-info au-target']//p"));
+            validateDescriptions(driver, jobs, uncached, valid, nextJob);
 
-            StringBuilder fullDescription = new StringBuilder();
-            fullDescription.append(job.getTitle()).append("\n");
-            for(WebElement paragraph : elements){
-                fullDescription.append(paragraph.getText()).append("\n");
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            // Rethrown as is, so a worker's Selenium timeout is still recognised as transient and retried
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new RuntimeException("Description validation failed", e.getCause());
+        } finally {
+            if (executor != null) {
+                releaseWorkers(executor, extraDrivers, workers, nextJob, uncached.size());
             }
-            String description = fullDescription.toString();
+        }
 
-            if(filter.validateDescription(description)){
-                filteredJob.add(job);
-                
+        List<Job> filteredJob = new ArrayList<>();
+        for (int i = 0; i < jobs.size(); i++) {
+            if (valid[i]) {
+                filteredJob.add(jobs.get(i));
             }
         }
         return filteredJob;
 
     }
 
+    // Workers may still be loading a page when validation stops early. No job is handed out anymore and each
+    // session goes back to the pool only once its worker has finished with it, a session still in use after
+    // WORKER_STOP_SECONDS is quit instead.
+    private void releaseWorkers(ExecutorService executor, List<WebDriver> extraDrivers, List<Future<?>> workers,
+                                AtomicInteger nextJob, int jobCount) {
+        nextJob.set(jobCount);
+        executor.shutdownNow();
+        boolean interrupted = false;
+        try {
+            executor.awaitTermination(WORKER_STOP_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+
+        for (int i = 0; i < extraDrivers.size(); i++) {
+            if (executor.isTerminated() || i >= workers.size() || workers.get(i).isDone()) {
+                driverPool.checkin(extraDrivers.get(i));
+            } else {
+                driverPool.discard(extraDrivers.get(i));
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Takes whatever sessions the pool can spare right now, the main driver always takes part
+    private List<WebDriver> checkoutExtraDrivers(int count) throws InterruptedException {
+        List<WebDriver> drivers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            WebDriver extraDriver = driverPool.tryCheckout(Duration.ZERO);
+            if (extraDriver == null) {
+                break;
+            }
+            drivers.add(extraDriver);
+        }
+        return drivers;
+    }
+
+    // Each session pulls the next uncached job until none are left, validating every description as it loads
+    private void validateDescriptions(WebDriver worker, List<Job> jobs, List<Integer> uncached, boolean[] valid,
+                                      AtomicInteger nextJob) {
+        for (int next = nextJob.getAndIncrement(); next < uncached.size(); next = nextJob.getAndIncrement()) {
+            int i = uncached.get(next);
+            String description = loadDescription(worker, jobs.get(i));
+            descriptionCache.put(jobs.get(i).getLink(), description);
+            valid[i] = filter.validateDescription(description);
+        }
+    }
+
+    private String loadDescription(WebDriver worker, Job job) {
+        NavigationEvent.record(job.getLink(), () -> worker.get(job.getLink()));
+
+        List<WebElement> elements = worker.findElements(By.xpath("//div[@class='jd-info au-target']//p"));
+
+        StringBuilder fullDescription = new StringBuilder();
+        fullDescription.append(job.getTitle()).append("\n");
+        for(WebElement paragraph : elements){
+            fullDescription.append(paragraph.getText()).append("\n");
+        }
+        return fullDescription.toString();
+    }
+
 
 
     private List<WebElement> findJobListings() {
@@ -216,6 +368,10 @@ public class ImpervaScraper implements JobsProvider {
 
 
     private void goToNextPage() {
+        PaginationEvent.record(CAREERS_URL, this::clickNextPage);
+    }
+
+    private boolean clickNextPage() {
         WebElement firstJobOnCurrentPage = driver.findElement(
                 By.xpath("//li[@class='jobs-list-item'][1]")
         );
@@ -223,5 +379,6 @@ public class ImpervaScraper implements JobsProvider {
         driver.findElement(By.xpath("//a[@class='next-btn au-target']")).click();
 
         wait.until(ExpectedConditions.stalenessOf(firstJobOnCurrentPage));
+        return true;
     }
 }
\ No newline at end of file
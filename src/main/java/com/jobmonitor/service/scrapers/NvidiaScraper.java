@@ -1,10 +1,12 @@
 package com.jobmonitor.service.scrapers;
 
+import com.jobmonitor.metrics.NavigationEvent;
+import com.jobmonitor.metrics.PaginationEvent;
 import com.jobmonitor.model.Job;
-import com.jobmonitor.selenium.BrowserType;
-import com.jobmonitor.selenium.WebDriverFactory;
+import com.jobmonitor.selenium.WebDriverPool;
 import com.jobmonitor.service.JobFilter;
 import com.jobmonitor.service.JobsProvider;
+import com.jobmonitor.storage.DescriptionCache;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
@@ -16,7 +18,7 @@ import java.util.List;
 
 public class NvidiaScraper implements JobsProvider {
 
-    private static final String CAREERS_URL =
+    public static final String CAREERS_URL =
             "https://nvidia.wd5.myworkdayjobs.com/en-US/NVIDIAExternalCareerSite" +
                     "?source=Eightfold" +
                     "&locationHierarchy1=2fcb99c455831013ea52bbe14cf9326c" +
@@ -36,15 +38,24 @@ public class NvidiaScraper implements JobsProvider {
     private static final int MAX_PER_PAGE = 20;
 
     private final JobFilter filter;
+    private final WebDriverPool driverPool;
+    private final DescriptionCache descriptionCache;
     private WebDriver driver;
 
 
-    public NvidiaScraper(JobFilter filter) {
+    public NvidiaScraper(JobFilter filter, WebDriverPool driverPool, DescriptionCache descriptionCache) {
         this.filter = filter;
+        this.driverPool = driverPool;
+        this.descriptionCache = descriptionCache;
     }
 
     @Override
-    public List<Job> fetchJobs(){
+    public String getName() {
+        return "nvidia";
+    }
+
+    @Override
+    public List<Job> fetchJobs() throws InterruptedException {
         initializeWebDriver();
 
         try {
@@ -54,14 +65,14 @@ public class NvidiaScraper implements JobsProvider {
         }
     }
 
-    private void initializeWebDriver() {
-        this.driver = WebDriverFactory.createDriver(BrowserType.FIREFOX);
+    private void initializeWebDriver() throws InterruptedException {
+        this.driver = driverPool.checkout();
 
     }
 
     private void cleanupWebDriver() {
         if (driver != null) {
-            driver.quit();
+            driverPool.checkin(driver);
             driver = null;
         }
     }
@@ -77,7 +88,7 @@ public class NvidiaScraper implements JobsProvider {
     }
 
     private void navigateToCareersSite() {
-        driver.get(CAREERS_URL);
+        NavigationEvent.record(CAREERS_URL, () -> driver.get(CAREERS_URL));
     }
 
     private List<Job> extractAllJobs() {
@@ -114,7 +125,10 @@ public class NvidiaScraper implements JobsProvider {
     }
 
     private boolean navigateToNextPage() {
+        return PaginationEvent.record(CAREERS_URL, this::clickNextPage);
+    }
 
+    private boolean clickNextPage() {
         int totalElementsInPage = driver.findElements(By.xpath(JOB_LINK_XPATH)).size();
 
         if(totalElementsInPage<MAX_PER_PAGE){
@@ -146,8 +160,12 @@ public class NvidiaScraper implements JobsProvider {
     }
 
     private boolean jobMatchesDescriptionCriteria(Job job) {
-        driver.get(job.getLink());
-        String fullDescription = buildFullJobDescription(job);
+        String fullDescription = descriptionCache.get(job.getLink());
+        if (fullDescription == null) {
+            NavigationEvent.record(job.getLink(), () -> driver.get(job.getLink()));
+            fullDescription = buildFullJobDescription(job);
+            descriptionCache.put(job.getLink(), fullDescription);
+        }
 
         return filter.validateDescription(fullDescription);
     }
@@ -1,10 +1,12 @@
 package com.jobmonitor.service.scrapers;
 
+import com.jobmonitor.metrics.NavigationEvent;
+import com.jobmonitor.metrics.PaginationEvent;
 import com.jobmonitor.model.Job;
-import com.jobmonitor.selenium.BrowserType;
-import com.jobmonitor.selenium.WebDriverFactory;
+import com.jobmonitor.selenium.WebDriverPool;
 import com.jobmonitor.service.JobFilter;
 import com.jobmonitor.service.JobsProvider;
+import com.jobmonitor.storage.DescriptionCache;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
@@ -16,7 +18,7 @@ import java.util.List;
 
 public class RedHatScraper implements JobsProvider {
 
-    private static final String CAREERS_URL =
+    public static final String CAREERS_URL =
             "https://redhat.wd5.myworkdayjobs.com/jobs/?a=084562884af243748dad7c84c304d89a";
 
 
@@ -32,15 +34,24 @@ public class RedHatScraper implements JobsProvider {
     private static final int MAX_PER_PAGE = 20;
 
     private final JobFilter filter;
+    private final WebDriverPool driverPool;
+    private final DescriptionCache descriptionCache;
     private WebDriver driver;
 
 
-    public RedHatScraper(JobFilter filter) {
+    public RedHatScraper(JobFilter filter, WebDriverPool driverPool, DescriptionCache descriptionCache) {
         this.filter = filter;
+        this.driverPool = driverPool;
+        this.descriptionCache = descriptionCache;
     }
 
     @Override
-    public List<Job> fetchJobs(){
+    public String getName() {
+        return "redhat";
+    }
+
+    @Override
+    public List<Job> fetchJobs() throws InterruptedException {
         initializeWebDriver();
 
         try {
@@ -50,14 +61,14 @@ public class RedHatScraper implements JobsProvider {
         }
     }
 
-    private void initializeWebDriver() {
-        this.driver = WebDriverFactory.createDriver(BrowserType.FIREFOX);
+    private void initializeWebDriver() throws InterruptedException {
+        this.driver = driverPool.checkout();
 
     }
 
     private void cleanupWebDriver() {
         if (driver != null) {
-            driver.quit();
+            driverPool.checkin(driver);
             driver = null;
         }
     }
@@ -71,7 +82,7 @@ public class RedHatScraper implements JobsProvider {
     }
 
     private void navigateToCareersSite() {
-        driver.get(CAREERS_URL);
+        NavigationEvent.record(CAREERS_URL, () -> driver.get(CAREERS_URL));
     }
 
     private List<Job> extractAllJobs() {
@@ -108,7 +119,10 @@ public class RedHatScraper implements JobsProvider {
     }
 
     private boolean navigateToNextPage() {
+        return PaginationEvent.record(CAREERS_URL, this::clickNextPage);
+    }
 
+    private boolean clickNextPage() {
         int totalElementsInPage = driver.findElements(By.xpath(JOB_LINK_XPATH)).size();
 
         if(totalElementsInPage<MAX_PER_PAGE){
@@ -140,8 +154,12 @@ public class RedHatScraper implements JobsProvider {
     }
 
     private boolean jobMatchesDescriptionCriteria(Job job) {
-        driver.get(job.getLink());
-        String fullDescription = buildFullJobDescription(job);
+        String fullDescription = descriptionCache.get(job.getLink());
+        if (fullDescription == null) {
+            NavigationEvent.record(job.getLink(), () -> driver.get(job.getLink()));
+            fullDescription = buildFullJobDescription(job);
+            descriptionCache.put(job.getLink(), fullDescription);
+        }
         System.out.println(fullDescription);
 
         return filter.validateDescription(fullDescription);
@@ -0,0 +1,30 @@
+package com.jobmonitor.storage;
+
+import java.util.function.BiConsumer;
+
+// Full job descriptions already loaded from a career site, so filtering a job again needs no page load
+public interface DescriptionCache {
+
+    DescriptionCache NONE = new DescriptionCache() {
+        @Override
+        public String get(String link) {
+            return null;
+        }
+
+        @Override
+        public void put(String link, String description) {
+        }
+    };
+
+    // The cached description, or null when it was never loaded or has expired
+    String get(String link);
+
+    void put(String link, String description);
+
+    // Streams every cached description, e.g. to re-run the description filter after a config change
+    default void forEach(BiConsumer<String, String> consumer) {
+    }
+
+    default void close() {
+    }
+}
@@ -0,0 +1,308 @@
+package com.jobmonitor.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Description cache kept in descriptions.log (a RecordLog) with every description deflate-compressed,
+// plus an LRU of the most recently used ones in memory. Links are normalized by the key function, so the
+// same posting reached through different URLs shares an entry. Entries expire ttlDays after being loaded.
+// Writes are not fsynced one by one, a crash only loses descriptions that are loaded again next time.
+public class DiskDescriptionCache implements DescriptionCache {
+
+    private static final String LOG_FILE = "descriptions.log";
+    private static final String REWRITE_FILE = "descriptions.log.rewrite";
+
+    private static final byte RECORD_VERSION = 1;
+    private static final long REWRITE_MIN_BYTES = 1 << 20;
+
+    private final Path logPath;
+    private final Path rewritePath;
+    private final long ttlMillis;
+    private final UnaryOperator<String> keyFunction;
+
+    // Guarded by this
+    private RecordLog log;
+    private final Map<String, Entry> byKey = new HashMap<>();
+    private final LinkedHashMap<String, String> recent;
+    private long liveBytes;
+    private long hits;
+    private long misses;
+
+    public DiskDescriptionCache(String directory, int memoryEntries, int ttlDays, UnaryOperator<String> keyFunction) {
+        Path root = Paths.get(directory);
+        this.logPath = root.resolve(LOG_FILE);
+        this.rewritePath = root.resolve(REWRITE_FILE);
+        this.ttlMillis = TimeUnit.DAYS.toMillis(ttlDays);
+        this.keyFunction = keyFunction;
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > memoryEntries;
+            }
+        };
+
+        try {
+            Files.createDirectories(root);
+            Files.deleteIfExists(rewritePath);
+
+            long cutoff = expiryCutoff();
+            RecordLog.read(logPath, (position, bytes) -> {
+                Header header = header(bytes);
+                if (header.loadedMillis >= cutoff) {
+                    index(header.key, new Entry(position, (int) RecordLog.recordSize(bytes), header.loadedMillis));
+                } else {
+                    unindex(header.key);
+                }
+            });
+            this.log = RecordLog.open(logPath);
+        } catch (IOException | UncheckedIOException e) {
+            throw new IllegalStateException("Unable to open description cache in " + root, e);
+        }
+    }
+
+    @Override
+    public synchronized String get(String link) {
+        String key = keyFunction.apply(link);
+        Entry entry = byKey.get(key);
+        if (entry == null || entry.loadedMillis < expiryCutoff()) {
+            unindex(key);
+            misses++;
+            return null;
+        }
+
+        String description = recent.get(key);
+        if (description == null) {
+            try {
+                description = description(log.readAt(entry.position));
+            } catch (IOException | UncheckedIOException e) {
+                System.err.println("Error reading cached description of " + link + ": " + e.getMessage());
+                unindex(key);
+                misses++;
+                return null;
+            }
+            recent.put(key, description);
+        }
+        hits++;
+        return description;
+    }
+
+    @Override
+    public void put(String link, String description) {
+        if (description == null || description.isEmpty()) {
+            return;
+        }
+
+        String key = keyFunction.apply(link);
+        // Compressed before taking the lock, the Imperva workers put descriptions concurrently
+        long now = System.currentTimeMillis();
+        byte[] record = encode(key, now, description);
+
+        synchronized (this) {
+            try {
+                long end = log.append(List.of(record));
+                int size = (int) RecordLog.recordSize(record);
+                index(key, new Entry(end - size, size, now));
+                recent.put(key, description);
+
+                if (log.size() >= REWRITE_MIN_BYTES && log.size() > 2 * liveBytes) {
+                    rewrite();
+                }
+            } catch (IOException | UncheckedIOException e) {
+                System.err.println("Error caching description of " + link + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // Reads past the memory LRU so a full scan does not push out the descriptions in use
+    @Override
+    public synchronized void forEach(BiConsumer<String, String> consumer) {
+        long cutoff = expiryCutoff();
+        for (Map.Entry<String, Entry> entry : byKey.entrySet()) {
+            if (entry.getValue().loadedMillis < cutoff) {
+                continue;
+            }
+            try {
+                consumer.accept(entry.getKey(), description(log.readAt(entry.getValue().position)));
+            } catch (IOException | UncheckedIOException e) {
+                System.err.println("Error reading cached description of " + entry.getKey() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return byKey.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        long lookups = hits + misses;
+        return byKey.size() + " description(s), " + log.size() / 1024 + " KB on disk, " +
+                hits + "/" + lookups + " hits";
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            log.close();
+        } catch (IOException e) {
+            System.err.println("Error closing description cache: " + e.getMessage());
+        }
+    }
+
+    // Copies the live, unexpired records into a new log, which then replaces the old one
+    private void rewrite() throws IOException {
+        long cutoff = expiryCutoff();
+        List<String> expired = new ArrayList<>();
+        byKey.forEach((key, entry) -> {
+            if (entry.loadedMillis < cutoff) {
+                expired.add(key);
+            }
+        });
+        expired.forEach(this::unindex);
+
+        Map<String, Entry> rewritten = new HashMap<>();
+        try (RecordLog target = RecordLog.open(rewritePath)) {
+            for (Map.Entry<String, Entry> entry : byKey.entrySet()) {
+                byte[] record = log.readAt(entry.getValue().position);
+                long end = target.append(List.of(record));
+                int size = (int) RecordLog.recordSize(record);
+                rewritten.put(entry.getKey(), new Entry(end - size, size, entry.getValue().loadedMillis));
+            }
+            target.sync(target.size());
+        }
+
+        long before = log.size();
+        log.close();
+        Files.move(rewritePath, logPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        log = RecordLog.open(logPath);
+        byKey.putAll(rewritten);
+
+        System.out.println("Rewrote " + logPath + ": " + before / 1024 + " KB -> " + log.size() / 1024 + " KB");
+    }
+
+    private void index(String key, Entry entry) {
+        Entry previous = byKey.put(key, entry);
+        if (previous != null) {
+            liveBytes -= previous.size;
+        }
+        liveBytes += entry.size;
+    }
+
+    private void unindex(String key) {
+        Entry removed = byKey.remove(key);
+        if (removed != null) {
+            liveBytes -= removed.size;
+        }
+        recent.remove(key);
+    }
+
+    private long expiryCutoff() {
+        return ttlMillis > 0 ? System.currentTimeMillis() - ttlMillis : Long.MIN_VALUE;
+    }
+
+    // [version][long loaded millis][key as modified UTF-8][deflated utf8 description]
+    private static byte[] encode(String key, long loadedMillis, String description) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(RECORD_VERSION);
+            out.writeLong(loadedMillis);
+            out.writeUTF(key);
+
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try {
+                deflater.setInput(description.getBytes(StandardCharsets.UTF_8));
+                deflater.finish();
+                byte[] buffer = new byte[4096];
+                while (!deflater.finished()) {
+                    out.write(buffer, 0, deflater.deflate(buffer));
+                }
+            } finally {
+                deflater.end();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String description(byte[] record) {
+        Header header = header(record);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(record, header.length, record.length - header.length);
+            ByteArrayOutputStream text = new ByteArrayOutputStream(record.length * 4);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated description record");
+                }
+                text.write(buffer, 0, inflated);
+            }
+            return text.toString(StandardCharsets.UTF_8);
+        } catch (IOException | DataFormatException e) {
+            throw new UncheckedIOException(new IOException("Corrupt description record: " + e.getMessage(), e));
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static Header header(byte[] record) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            byte version = in.readByte();
+            if (version != RECORD_VERSION) {
+                throw new IOException("Unknown description record version " + version);
+            }
+            long loadedMillis = in.readLong();
+            String key = in.readUTF();
+            return new Header(loadedMillis, key, record.length - in.available());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Header {
+        final long loadedMillis;
+        final String key;
+        // Bytes before the compressed description
+        final int length;
+
+        Header(long loadedMillis, String key, int length) {
+            this.loadedMillis = loadedMillis;
+            this.key = key;
+            this.length = length;
+        }
+    }
+
+    private static final class Entry {
+        final long position;
+        final int size;
+        final long loadedMillis;
+
+        Entry(long position, int size, long loadedMillis) {
+            this.position = position;
+            this.size = size;
+            this.loadedMillis = loadedMillis;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.jobmonitor.storage;
+
+import java.time.Instant;
+
+// A stored job: what was fetched, which provider found it and when it was first and last seen
+public class JobRecord {
+    private final String link;
+    private final String title;
+    private final String snippet;
+    private final String provider;
+    private final long firstSeenMillis;
+    private final long lastSeenMillis;
+
+    public JobRecord(String link, String title, String snippet, String provider,
+                     long firstSeenMillis, long lastSeenMillis) {
+        this.link = link;
+        this.title = title;
+        this.snippet = snippet;
+        this.provider = provider;
+        this.firstSeenMillis = firstSeenMillis;
+        this.lastSeenMillis = lastSeenMillis;
+    }
+
+    public String getLink() { return link; }
+    public String getTitle() { return title; }
+    public String getSnippet() { return snippet; }
+    public String getProvider() { return provider; }
+    public Instant getFirstSeen() { return Instant.ofEpochMilli(firstSeenMillis); }
+    public Instant getLastSeen() { return Instant.ofEpochMilli(lastSeenMillis); }
+
+    long firstSeenMillis() { return firstSeenMillis; }
+    long lastSeenMillis() { return lastSeenMillis; }
+
+    JobRecord seenAt(long millis) {
+        return new JobRecord(link, title, snippet, provider, firstSeenMillis, Math.max(lastSeenMillis, millis));
+    }
+
+    @Override
+    public String toString() {
+        return "JobRecord{" +
+                "link='" + link + '\'' +
+                ", title='" + title + '\'' +
+                ", provider='" + provider + '\'' +
+                ", firstSeen=" + getFirstSeen() +
+                ", lastSeen=" + getLastSeen() +
+                '}';
+    }
+}
@@ -0,0 +1,461 @@
+package com.jobmonitor.storage;
+
+import com.jobmonitor.model.Job;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+// Structured job storage: every job is a binary record in jobs.log (a RecordLog) and the latest record of a link wins.
+// An in-memory index maps each link to its latest record and each provider to its links, so lookups and
+// yield reports never scan the file. Seeing a known job again appends a record with the new last-seen time
+// (at most hourly per job), and once the log is mostly superseded records it is rewritten with the latest ones.
+// Jobs are indexed by the key function of their link (its canonical form), so the same posting reached through
+// a slightly different URL updates the existing job instead of adding a new one.
+public class JobRecordStorage implements JobStorage {
+
+    private static final String LOG_FILE = "jobs.log";
+    private static final String REWRITE_FILE = "jobs.log.rewrite";
+
+    // Links-only storage files imported on first start, see LogJobStorage
+    private static final String LINK_SNAPSHOT_FILE = "links.snapshot";
+    private static final String LINK_LOG_FILE = "links.log";
+
+    private static final byte RECORD_VERSION = 1;
+    private static final int MAX_FIELD_CHARS = 8192;
+    private static final int REWRITE_BATCH = 1000;
+    private static final long LAST_SEEN_RESOLUTION_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final long EVICTION_INTERVAL_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private final Path logPath;
+    private final Path rewritePath;
+    private final long compactionThresholdBytes;
+    private final long retentionMillis;
+    private final UnaryOperator<String> keyFunction;
+    private final Clock clock;
+
+    // Guarded by this
+    private RecordLog log;
+    private final Map<String, Entry> byLink = new HashMap<>();
+    private final Map<String, Set<String>> linksByProvider = new HashMap<>();
+    private long liveBytes;
+    private long lastEvictionMillis;
+
+    // retentionDays 0 keeps jobs forever, otherwise jobs not seen for that long are dropped
+    public JobRecordStorage(String directory, String legacyFile, long compactionThresholdBytes, int retentionDays,
+                            UnaryOperator<String> keyFunction) {
+        this(directory, legacyFile, compactionThresholdBytes, retentionDays, keyFunction, Clock.systemUTC());
+    }
+
+    // clock lets tests age records without waiting
+    JobRecordStorage(String directory, String legacyFile, long compactionThresholdBytes, int retentionDays,
+                     UnaryOperator<String> keyFunction, Clock clock) {
+        Path root = Paths.get(directory);
+        this.logPath = root.resolve(LOG_FILE);
+        this.rewritePath = root.resolve(REWRITE_FILE);
+        this.compactionThresholdBytes = compactionThresholdBytes;
+        this.retentionMillis = TimeUnit.DAYS.toMillis(retentionDays);
+        this.keyFunction = keyFunction;
+        this.clock = clock;
+
+        try {
+            Files.createDirectories(root);
+            // A rewrite or import that did not finish never replaced the log, start over without it
+            Files.deleteIfExists(rewritePath);
+
+            if (Files.exists(logPath)) {
+                this.log = RecordLog.open(logPath);
+                load();
+            } else {
+                // The first start imports into the rewrite file and moves it into place once complete,
+                // so a crash halfway leaves no jobs.log and the next start imports again
+                this.log = RecordLog.open(rewritePath);
+                importLinks(root, legacyFile);
+                log.close();
+                Files.move(rewritePath, logPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                this.log = RecordLog.open(logPath);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to open job storage in " + root, e);
+        }
+    }
+
+    @Override
+    public synchronized Set<String> getStoredJobLinks() {
+        return new HashSet<>(byLink.keySet());
+    }
+
+    // Reports the last-seen time: retention here counts from when a job was last fetched, so a posting
+    // that is still listed is not forgotten and notified again
+    @Override
+    public synchronized void forEachStoredLink(StoredLinkConsumer consumer) {
+        byLink.forEach((link, entry) -> consumer.accept(link, entry.lastSeenMillis));
+    }
+
+    @Override
+    public synchronized void forEachStoredJob(Consumer<JobRecord> consumer) {
+        for (Entry entry : byLink.values()) {
+            try {
+                consumer.accept(read(entry));
+            } catch (IOException | UncheckedIOException e) {
+                System.err.println("Error reading stored job: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void saveJobLinks(Set<String> links) {
+        List<Job> jobs = new ArrayList<>(links.size());
+        for (String link : links) {
+            jobs.add(new Job(link, "", ""));
+        }
+        saveJobs(jobs, List.of());
+    }
+
+    // Batch upsert: unknown jobs are inserted, known ones get a new last-seen time
+    @Override
+    public synchronized void saveJobs(List<Job> newJobs, List<Job> seenAgain) {
+        long now = clock.millis();
+
+        Map<String, JobRecord> changed = new LinkedHashMap<>();
+        try {
+            for (List<Job> jobs : List.of(newJobs, seenAgain)) {
+                for (Job job : jobs) {
+                    JobRecord record = upserted(job, now);
+                    if (record != null) {
+                        changed.put(keyFunction.apply(record.getLink()), record);
+                    }
+                }
+            }
+
+            append(changed.values());
+            evictExpired(now);
+            if (log.size() >= compactionThresholdBytes && log.size() > 2 * liveBytes) {
+                rewrite();
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error saving jobs: " + e.getMessage());
+        }
+    }
+
+    // Only refreshes jobs already stored: a link skipped by a provider may be a fingerprint collision
+    // in the seen set, inserting it would store a job that was never notified
+    @Override
+    public synchronized void markSeen(Collection<String> links) {
+        long now = clock.millis();
+
+        Map<String, JobRecord> changed = new LinkedHashMap<>();
+        try {
+            for (String link : links) {
+                String key = keyFunction.apply(link);
+                Entry entry = byLink.get(key);
+                if (entry != null && now - entry.lastSeenMillis >= LAST_SEEN_RESOLUTION_MILLIS) {
+                    changed.putIfAbsent(key, read(entry).seenAt(now));
+                }
+            }
+            append(changed.values());
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error saving jobs: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized Map<String, ProviderYield> providerYield(Duration window) {
+        long since = clock.millis() - window.toMillis();
+
+        Map<String, ProviderYield> yields = new TreeMap<>();
+        linksByProvider.forEach((provider, links) -> {
+            // Imported links carry no provider
+            if (provider.isEmpty()) {
+                return;
+            }
+
+            int recent = 0;
+            long lastNew = 0;
+            for (String key : links) {
+                long firstSeen = byLink.get(key).firstSeenMillis;
+                if (firstSeen >= since) {
+                    recent++;
+                }
+                lastNew = Math.max(lastNew, firstSeen);
+            }
+            yields.put(provider, new ProviderYield(provider, links.size(), recent, lastNew));
+        });
+        return yields;
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            log.close();
+        } catch (IOException e) {
+            System.err.println("Error closing job storage: " + e.getMessage());
+        }
+    }
+
+    // The record to write for a fetched job, or null when nothing changed worth a write
+    private JobRecord upserted(Job job, long now) throws IOException {
+        Entry entry = byLink.get(keyFunction.apply(job.getLink()));
+        if (entry == null) {
+            return new JobRecord(job.getLink(), job.getTitle(), job.getSnippet(), job.getProvider(), now, now);
+        }
+        if (now - entry.lastSeenMillis < LAST_SEEN_RESOLUTION_MILLIS) {
+            return null;
+        }
+
+        JobRecord stored = read(entry);
+        // Links imported from the link files have no details yet, take them from the first fetch
+        if (stored.getTitle().isEmpty() && !job.getTitle().isEmpty()) {
+            return new JobRecord(stored.getLink(), job.getTitle(), job.getSnippet(), job.getProvider(),
+                    stored.firstSeenMillis(), now);
+        }
+        return stored.seenAt(now);
+    }
+
+    private void append(Collection<JobRecord> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+
+        List<byte[]> encoded = new ArrayList<>(records.size());
+        for (JobRecord record : records) {
+            encoded.add(encode(record));
+        }
+
+        long end = log.append(encoded);
+        log.sync(end);
+
+        long position = end;
+        for (byte[] record : encoded) {
+            position -= RecordLog.recordSize(record);
+        }
+        int i = 0;
+        for (JobRecord record : records) {
+            byte[] bytes = encoded.get(i++);
+            index(record, position, (int) RecordLog.recordSize(bytes));
+            position += RecordLog.recordSize(bytes);
+        }
+    }
+
+    private void load() throws IOException {
+        long cutoff = retentionCutoff();
+        RecordLog.read(logPath, (position, bytes) -> {
+            JobRecord record = decode(bytes);
+            if (record.lastSeenMillis() >= cutoff) {
+                index(record, position, (int) RecordLog.recordSize(bytes));
+            } else {
+                unindex(keyFunction.apply(record.getLink()));
+            }
+        });
+        lastEvictionMillis = clock.millis();
+    }
+
+    private void importLinks(Path root, String legacyFile) throws IOException {
+        List<JobRecord> imported = new ArrayList<>();
+        String source;
+        // Retention counts from the import, not from when the old storage happened to record a link
+        long importMillis = clock.millis();
+
+        if (Files.exists(root.resolve(LINK_SNAPSHOT_FILE)) || Files.exists(root.resolve(LINK_LOG_FILE))) {
+            source = "link storage in " + root;
+            LogJobStorage links = new LogJobStorage(root.toString(), legacyFile, Long.MAX_VALUE, 0);
+            links.forEachStoredLink((link, firstSeenMillis) ->
+                    imported.add(new JobRecord(link, "", "", "", firstSeenMillis, importMillis)));
+            links.close();
+        } else if (Files.exists(Paths.get(legacyFile))) {
+            source = legacyFile;
+            // The text file has no timestamps, its links count as first seen at the import.
+            // The file's modification time may be long past and would have them evicted right away.
+            for (String line : Files.readAllLines(Paths.get(legacyFile))) {
+                if (!line.isBlank()) {
+                    imported.add(new JobRecord(line.trim(), "", "", "", importMillis, importMillis));
+                }
+            }
+        } else {
+            return;
+        }
+
+        Map<String, JobRecord> distinct = new LinkedHashMap<>();
+        for (JobRecord record : imported) {
+            distinct.putIfAbsent(keyFunction.apply(record.getLink()), record);
+        }
+        append(distinct.values());
+        System.out.println("Imported " + distinct.size() + " job link(s) from " + source);
+    }
+
+    private void evictExpired(long now) {
+        if (retentionMillis <= 0 || now - lastEvictionMillis < EVICTION_INTERVAL_MILLIS) {
+            return;
+        }
+        lastEvictionMillis = now;
+
+        long cutoff = now - retentionMillis;
+        List<String> expired = new ArrayList<>();
+        byLink.forEach((key, entry) -> {
+            if (entry.lastSeenMillis < cutoff) {
+                expired.add(key);
+            }
+        });
+        expired.forEach(this::unindex);
+
+        if (!expired.isEmpty()) {
+            System.out.println("Dropped " + expired.size() + " job(s) not seen for " +
+                    TimeUnit.MILLISECONDS.toDays(retentionMillis) + " days");
+        }
+    }
+
+    // Copies the latest record of every indexed job into a new log, which then replaces the old one
+    private void rewrite() throws IOException {
+        Map<String, Entry> rewritten = new HashMap<>();
+
+        try (RecordLog target = RecordLog.open(rewritePath)) {
+            List<String> keys = new ArrayList<>(byLink.keySet());
+            for (int start = 0; start < keys.size(); start += REWRITE_BATCH) {
+                List<String> batch = keys.subList(start, Math.min(keys.size(), start + REWRITE_BATCH));
+
+                List<byte[]> records = new ArrayList<>(batch.size());
+                for (String key : batch) {
+                    records.add(log.readAt(byLink.get(key).position));
+                }
+
+                long position = target.append(records);
+                for (int i = records.size() - 1; i >= 0; i--) {
+                    int size = (int) RecordLog.recordSize(records.get(i));
+                    position -= size;
+                    rewritten.put(batch.get(i), byLink.get(batch.get(i)).movedTo(position, size));
+                }
+            }
+            target.sync(target.size());
+        }
+
+        long before = log.size();
+        log.close();
+        Files.move(rewritePath, logPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        log = RecordLog.open(logPath);
+        byLink.putAll(rewritten);
+
+        System.out.println("Rewrote " + logPath + ": " + before / 1024 + " KB -> " + log.size() / 1024 + " KB");
+    }
+
+    private void index(JobRecord record, long position, int size) {
+        String key = keyFunction.apply(record.getLink());
+        Entry previous = byLink.put(key, new Entry(position, size, record.getProvider(),
+                record.firstSeenMillis(), record.lastSeenMillis()));
+
+        if (previous != null) {
+            liveBytes -= previous.size;
+            if (!previous.provider.equals(record.getProvider())) {
+                removeFromProvider(previous.provider, key);
+            }
+        }
+        liveBytes += size;
+        linksByProvider.computeIfAbsent(record.getProvider(), provider -> new HashSet<>()).add(key);
+    }
+
+    private void unindex(String key) {
+        Entry removed = byLink.remove(key);
+        if (removed != null) {
+            liveBytes -= removed.size;
+            removeFromProvider(removed.provider, key);
+        }
+    }
+
+    private void removeFromProvider(String provider, String key) {
+        Set<String> links = linksByProvider.get(provider);
+        if (links != null) {
+            links.remove(key);
+            if (links.isEmpty()) {
+                linksByProvider.remove(provider);
+            }
+        }
+    }
+
+    private JobRecord read(Entry entry) throws IOException {
+        return decode(log.readAt(entry.position));
+    }
+
+    private long retentionCutoff() {
+        return retentionMillis > 0 ? clock.millis() - retentionMillis : Long.MIN_VALUE;
+    }
+
+    // [version][long first seen][long last seen][link][title][snippet][provider], strings as modified UTF-8
+    private static byte[] encode(JobRecord record) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(RECORD_VERSION);
+            out.writeLong(record.firstSeenMillis());
+            out.writeLong(record.lastSeenMillis());
+            out.writeUTF(limit(record.getLink()));
+            out.writeUTF(limit(record.getTitle()));
+            out.writeUTF(limit(record.getSnippet()));
+            out.writeUTF(limit(record.getProvider()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static JobRecord decode(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            byte version = in.readByte();
+            if (version != RECORD_VERSION) {
+                throw new IOException("Unknown job record version " + version);
+            }
+            long firstSeen = in.readLong();
+            long lastSeen = in.readLong();
+            return new JobRecord(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(), firstSeen, lastSeen);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // writeUTF takes at most 64 KB, a field this long is never useful anyway
+    private static String limit(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.length() <= MAX_FIELD_CHARS ? value : value.substring(0, MAX_FIELD_CHARS);
+    }
+
+    // Where the latest record of a link is, plus what the yield report needs without reading it
+    private static final class Entry {
+        final long position;
+        final int size;
+        final String provider;
+        final long firstSeenMillis;
+        final long lastSeenMillis;
+
+        Entry(long position, int size, String provider, long firstSeenMillis, long lastSeenMillis) {
+            this.position = position;
+            this.size = size;
+            this.provider = provider;
+            this.firstSeenMillis = firstSeenMillis;
+            this.lastSeenMillis = lastSeenMillis;
+        }
+
+        Entry movedTo(long position, int size) {
+            return new Entry(position, size, provider, firstSeenMillis, lastSeenMillis);
+        }
+    }
+}
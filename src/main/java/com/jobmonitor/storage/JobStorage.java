@@ -1,8 +1,48 @@
 package com.jobmonitor.storage;
 
+import com.jobmonitor.model.Job;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 public interface JobStorage {
     Set<String> getStoredJobLinks();
     void saveJobLinks(Set<String> links);
+
+    // Streams stored links with the time each was first seen, without collecting them into a set first.
+    // Storages that keep no timestamps report the current time.
+    default void forEachStoredLink(StoredLinkConsumer consumer) {
+        long now = System.currentTimeMillis();
+        getStoredJobLinks().forEach(link -> consumer.accept(link, now));
+    }
+
+    // Streams the stored jobs with their details, nothing for storages that only keep links
+    default void forEachStoredJob(Consumer<JobRecord> consumer) {
+    }
+
+    // Records one pipeline batch in a single write: newJobs are inserted, seenAgain are already stored jobs
+    // fetched once more. Storages that only keep links store the new links.
+    default void saveJobs(List<Job> newJobs, List<Job> seenAgain) {
+        saveJobLinks(newJobs.stream().map(Job::getLink).collect(Collectors.toSet()));
+    }
+
+    // Refreshes the last-seen time of stored jobs that providers skipped because they were already seen,
+    // so jobs that are still listed are not dropped by retention. Nothing for storages without timestamps.
+    default void markSeen(Collection<String> links) {
+    }
+
+    // Stored jobs per provider, with those first seen within the window counted as recent.
+    // Empty for storages that do not know the provider of a job.
+    default Map<String, ProviderYield> providerYield(Duration window) {
+        return Map.of();
+    }
+
+    // Flushes and releases files, called once on shutdown
+    default void close() {
+    }
 }
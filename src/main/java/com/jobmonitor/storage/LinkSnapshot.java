@@ -0,0 +1,116 @@
+package com.jobmonitor.storage;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+// Sorted, deduplicated set of links written by compaction.
+// Layout: [int magic] then per link [int length][utf8 bytes][long first seen millis],
+// then a trailer [int count][int crc32 of the entries].
+// Snapshots from before first-seen times were kept (JLS1) have no timestamp, their links count as
+// first seen when the file was written.
+final class LinkSnapshot {
+
+    private static final int MAGIC = 0x4A4C5332; // "JLS2"
+    private static final int MAGIC_WITHOUT_TIMES = 0x4A4C5331; // "JLS1"
+    private static final int TRAILER_BYTES = 8;
+
+    private LinkSnapshot() {
+    }
+
+    static List<StoredLink> read(Path path) throws IOException {
+        List<StoredLink> links = new ArrayList<>();
+        forEach(path, (link, firstSeenMillis) -> links.add(new StoredLink(link, firstSeenMillis)));
+        return links;
+    }
+
+    // Maps the file instead of reading it through a stream, passes the links on in sorted order
+    static void forEach(Path path, StoredLinkConsumer consumer) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < Integer.BYTES + TRAILER_BYTES) {
+                throw new IOException("Snapshot " + path + " is truncated");
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int magic = buffer.getInt(0);
+            if (magic != MAGIC && magic != MAGIC_WITHOUT_TIMES) {
+                throw new IOException("Snapshot " + path + " has an unknown format");
+            }
+            long writtenMillis = Files.getLastModifiedTime(path).toMillis();
+
+            int entriesEnd = (int) size - TRAILER_BYTES;
+            int count = buffer.getInt(entriesEnd);
+            int checksum = buffer.getInt(entriesEnd + Integer.BYTES);
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(Integer.BYTES, entriesEnd - Integer.BYTES));
+            if ((int) crc.getValue() != checksum) {
+                throw new IOException("Snapshot " + path + " failed its checksum");
+            }
+
+            int read = 0;
+            buffer.position(Integer.BYTES);
+            while (buffer.position() < entriesEnd) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                long firstSeenMillis = magic == MAGIC ? buffer.getLong() : writtenMillis;
+                consumer.accept(new String(bytes, StandardCharsets.UTF_8), firstSeenMillis);
+                read++;
+            }
+            if (read != count) {
+                throw new IOException("Snapshot " + path + " holds " + read + " links, expected " + count);
+            }
+        }
+    }
+
+    // Writes the links (already sorted by link and distinct) next to the target, then atomically replaces it,
+    // so a crash leaves either the old snapshot or the new one
+    static void write(Path path, Iterator<StoredLink> sortedLinks) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileOutputStream file = new FileOutputStream(temporary.toFile())) {
+            CRC32 crc = new CRC32();
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file));
+            out.writeInt(MAGIC);
+            out.flush();
+
+            DataOutputStream entries = new DataOutputStream(
+                    new CheckedOutputStream(new BufferedOutputStream(file), crc));
+            int count = 0;
+            while (sortedLinks.hasNext()) {
+                StoredLink link = sortedLinks.next();
+                byte[] bytes = link.link.getBytes(StandardCharsets.UTF_8);
+                entries.writeInt(bytes.length);
+                entries.write(bytes);
+                entries.writeLong(link.firstSeenMillis);
+                count++;
+            }
+            entries.flush();
+
+            out.writeInt(count);
+            out.writeInt((int) crc.getValue());
+            out.flush();
+            file.getChannel().force(true);
+        }
+
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
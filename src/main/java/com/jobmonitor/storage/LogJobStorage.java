@@ -0,0 +1,282 @@
+package com.jobmonitor.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Log-structured link storage: new links are appended to links.log (checksummed, fsynced per batch)
+// and folded into the sorted links.snapshot by a background compaction once the log grows past a threshold.
+// Compaction first renames the log to links.log.compacting so saves keep going to a fresh log meanwhile.
+// Every link carries the time it was first seen. With a retention window, links older than it are skipped
+// when loading and dropped by compaction, which then also runs daily even if the log stays small.
+public class LogJobStorage implements JobStorage {
+
+    private static final String LOG_FILE = "links.log";
+    private static final String COMPACTING_FILE = "links.log.compacting";
+    private static final String SNAPSHOT_FILE = "links.snapshot";
+
+    // Log records are [VERSION][long first seen millis][utf8 link]. Records written before timestamps
+    // were kept are the bare link, which never starts with a zero byte.
+    private static final byte RECORD_VERSION = 0;
+    private static final int RECORD_HEADER_BYTES = 1 + Long.BYTES;
+
+    private final Path logPath;
+    private final Path compactingPath;
+    private final Path snapshotPath;
+    private final long compactionThresholdBytes;
+    private final long retentionMillis;
+
+    private final ScheduledExecutorService compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "storage-compaction");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by this
+    private RecordLog log;
+    private boolean compacting;
+
+    // retentionDays 0 keeps links forever
+    public LogJobStorage(String directory, String legacyFile, long compactionThresholdBytes, int retentionDays) {
+        Path root = Paths.get(directory);
+        this.logPath = root.resolve(LOG_FILE);
+        this.compactingPath = root.resolve(COMPACTING_FILE);
+        this.snapshotPath = root.resolve(SNAPSHOT_FILE);
+        this.compactionThresholdBytes = compactionThresholdBytes;
+        this.retentionMillis = TimeUnit.DAYS.toMillis(retentionDays);
+
+        try {
+            Files.createDirectories(root);
+
+            // A compaction interrupted by a shutdown or crash is finished before anything else
+            if (Files.exists(compactingPath)) {
+                compact();
+            }
+            if (!Files.exists(snapshotPath) && !Files.exists(logPath)) {
+                importLegacyFile(Paths.get(legacyFile));
+            }
+
+            this.log = RecordLog.open(logPath);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to open job storage in " + root, e);
+        }
+
+        if (retentionMillis > 0) {
+            compactor.scheduleAtFixedRate(this::evictExpired, 1, 24, TimeUnit.HOURS);
+        }
+    }
+
+    @Override
+    public Set<String> getStoredJobLinks() {
+        Set<String> links = new HashSet<>();
+        forEachStoredLink((link, firstSeenMillis) -> links.add(link));
+        return links;
+    }
+
+    // Snapshot links first, then the logs, leaving out links past the retention window.
+    // A link can be reported twice when a crash hit after an append but before its compaction removed the log.
+    @Override
+    public void forEachStoredLink(StoredLinkConsumer consumer) {
+        long cutoff = retentionCutoff();
+        StoredLinkConsumer retained = (link, firstSeenMillis) -> {
+            if (firstSeenMillis >= cutoff) {
+                consumer.accept(link, firstSeenMillis);
+            }
+        };
+
+        try {
+            LinkSnapshot.forEach(snapshotPath, retained);
+            readLog(compactingPath, retained);
+            synchronized (this) {
+                readLog(logPath, retained);
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading job links: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void saveJobLinks(Set<String> links) {
+        if (links.isEmpty()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        List<byte[]> records = new ArrayList<>(links.size());
+        for (String link : links) {
+            records.add(encode(link, now));
+        }
+
+        try {
+            RecordLog target;
+            long end;
+            synchronized (this) {
+                target = log;
+                end = target.append(records);
+            }
+            // Outside the lock, so saves that arrive meanwhile share one fsync
+            target.sync(end);
+
+            if (target.size() >= compactionThresholdBytes) {
+                startCompaction();
+            }
+        } catch (IOException e) {
+            System.err.println("Error saving job links: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        compactor.shutdown();
+        try {
+            if (!compactor.awaitTermination(30, TimeUnit.SECONDS)) {
+                System.err.println("Job storage compaction still running at shutdown, it resumes on the next start");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (this) {
+            try {
+                log.close();
+            } catch (IOException e) {
+                System.err.println("Error closing job storage: " + e.getMessage());
+            }
+        }
+    }
+
+    private void evictExpired() {
+        try {
+            startCompaction();
+        } catch (IOException e) {
+            System.err.println("Error starting job storage compaction: " + e.getMessage());
+        }
+    }
+
+    // Moves the current log aside and compacts it in the background, unless a compaction is already running
+    private synchronized void startCompaction() throws IOException {
+        if (compacting || compactor.isShutdown()) {
+            return;
+        }
+
+        log.close();
+        Files.move(logPath, compactingPath, StandardCopyOption.ATOMIC_MOVE);
+        log = RecordLog.open(logPath);
+        compacting = true;
+
+        compactor.execute(() -> {
+            try {
+                compact();
+            } catch (IOException e) {
+                System.err.println("Error compacting job storage: " + e.getMessage());
+            } finally {
+                synchronized (this) {
+                    compacting = false;
+                }
+            }
+        });
+    }
+
+    // Merges links.log.compacting into the snapshot, dropping expired links, and removes it
+    private void compact() throws IOException {
+        TreeMap<String, Long> logged = new TreeMap<>();
+        readLog(compactingPath, (link, firstSeenMillis) -> logged.merge(link, firstSeenMillis, Math::min));
+
+        List<StoredLink> snapshot = LinkSnapshot.read(snapshotPath);
+        List<StoredLink> merged = merge(snapshot, logged, retentionCutoff());
+        LinkSnapshot.write(snapshotPath, merged.iterator());
+        Files.delete(compactingPath);
+
+        System.out.println("Compacted " + logged.size() + " logged link(s) into " + snapshotPath + ", " +
+                (snapshot.size() + logged.size() - merged.size()) + " expired or duplicate link(s) dropped");
+    }
+
+    // Both inputs are sorted by link, a link in both keeps its earliest first-seen time
+    private static List<StoredLink> merge(List<StoredLink> snapshot, TreeMap<String, Long> logged, long cutoff) {
+        List<StoredLink> merged = new ArrayList<>(snapshot.size() + logged.size());
+        int i = 0;
+        Map.Entry<String, Long> entry = logged.firstEntry();
+
+        while (i < snapshot.size() || entry != null) {
+            int order = i == snapshot.size() ? 1 : entry == null ? -1 : snapshot.get(i).link.compareTo(entry.getKey());
+
+            StoredLink next;
+            if (order < 0) {
+                next = snapshot.get(i++);
+            } else if (order > 0) {
+                next = new StoredLink(entry.getKey(), entry.getValue());
+                entry = logged.higherEntry(entry.getKey());
+            } else {
+                next = new StoredLink(entry.getKey(), Math.min(snapshot.get(i++).firstSeenMillis, entry.getValue()));
+                entry = logged.higherEntry(entry.getKey());
+            }
+
+            if (next.firstSeenMillis >= cutoff) {
+                merged.add(next);
+            }
+        }
+        return merged;
+    }
+
+    private void importLegacyFile(Path legacyFile) throws IOException {
+        if (!Files.exists(legacyFile)) {
+            return;
+        }
+
+        // The text file has no timestamps, its links count as first seen at the import.
+        // The file's modification time may be long past and would have them evicted right away.
+        long firstSeenMillis = System.currentTimeMillis();
+        TreeMap<String, Long> links = new TreeMap<>();
+        for (String line : Files.readAllLines(legacyFile)) {
+            if (!line.isBlank()) {
+                links.put(line.trim(), firstSeenMillis);
+            }
+        }
+        LinkSnapshot.write(snapshotPath, merge(List.of(), links, Long.MIN_VALUE).iterator());
+
+        System.out.println("Imported " + links.size() + " job link(s) from " + legacyFile);
+    }
+
+    private long retentionCutoff() {
+        return retentionMillis > 0 ? System.currentTimeMillis() - retentionMillis : Long.MIN_VALUE;
+    }
+
+    private static void readLog(Path path, StoredLinkConsumer consumer) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        long modifiedMillis = Files.getLastModifiedTime(path).toMillis();
+
+        RecordLog.read(path, record -> {
+            if (record.length >= RECORD_HEADER_BYTES && record[0] == RECORD_VERSION) {
+                long firstSeenMillis = ByteBuffer.wrap(record).getLong(1);
+                consumer.accept(new String(record, RECORD_HEADER_BYTES, record.length - RECORD_HEADER_BYTES,
+                        StandardCharsets.UTF_8), firstSeenMillis);
+            } else {
+                consumer.accept(new String(record, StandardCharsets.UTF_8), modifiedMillis);
+            }
+        });
+    }
+
+    private static byte[] encode(String link, long firstSeenMillis) {
+        byte[] bytes = link.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(RECORD_HEADER_BYTES + bytes.length)
+                .put(RECORD_VERSION)
+                .putLong(firstSeenMillis)
+                .put(bytes)
+                .array();
+    }
+}
@@ -0,0 +1,33 @@
+package com.jobmonitor.storage;
+
+import java.time.Instant;
+
+// How many stored jobs a provider found, in total and within a recent window
+public class ProviderYield {
+    private final String provider;
+    private final int totalJobs;
+    private final int recentJobs;
+    private final long lastNewJobMillis;
+
+    public ProviderYield(String provider, int totalJobs, int recentJobs, long lastNewJobMillis) {
+        this.provider = provider;
+        this.totalJobs = totalJobs;
+        this.recentJobs = recentJobs;
+        this.lastNewJobMillis = lastNewJobMillis;
+    }
+
+    public String getProvider() { return provider; }
+    public int getTotalJobs() { return totalJobs; }
+    public int getRecentJobs() { return recentJobs; }
+
+    // Null when the provider never found a job
+    public Instant getLastNewJob() {
+        return lastNewJobMillis > 0 ? Instant.ofEpochMilli(lastNewJobMillis) : null;
+    }
+
+    @Override
+    public String toString() {
+        return provider + ": " + recentJobs + " recent / " + totalJobs + " total" +
+                (lastNewJobMillis > 0 ? ", last new " + getLastNewJob() : "");
+    }
+}
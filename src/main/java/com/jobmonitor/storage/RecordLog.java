@@ -0,0 +1,192 @@
+package com.jobmonitor.storage;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// Append-only file of checksummed records: [int length][int crc32][payload].
+// Opening a log drops a torn or corrupt tail left by a crash. Appends are written in one go,
+// sync() makes them durable, and concurrent callers share a single fsync (group commit).
+class RecordLog implements Closeable {
+
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+
+    private final FileChannel channel;
+    private final Object syncLock = new Object();
+
+    // Guarded by this
+    private long writePosition;
+    private volatile long syncedPosition;
+
+    private RecordLog(FileChannel channel, long writePosition) {
+        this.channel = channel;
+        this.writePosition = writePosition;
+        this.syncedPosition = writePosition;
+    }
+
+    static RecordLog open(Path path) throws IOException {
+        long validBytes = Files.exists(path) ? read(path, (position, record) -> { }) : 0;
+
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() > validBytes) {
+            System.err.println("Dropping " + (channel.size() - validBytes) + " byte(s) of incomplete records from " + path);
+            channel.truncate(validBytes);
+            channel.force(true);
+        }
+        channel.position(validBytes);
+
+        return new RecordLog(channel, validBytes);
+    }
+
+    @FunctionalInterface
+    interface PositionedConsumer {
+        void accept(long position, byte[] record);
+    }
+
+    static long read(Path path, Consumer<byte[]> consumer) throws IOException {
+        return read(path, (position, record) -> consumer.accept(record));
+    }
+
+    // Passes every intact record and its position to the consumer, stops at the first torn or corrupt one.
+    // Returns the number of bytes holding intact records.
+    static long read(Path path, PositionedConsumer consumer) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+
+        long validBytes = 0;
+        try (InputStream file = Channels.newInputStream(FileChannel.open(path, StandardOpenOption.READ));
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+            while (true) {
+                int length;
+                int checksum;
+                byte[] payload;
+                try {
+                    length = in.readInt();
+                    checksum = in.readInt();
+                    if (length < 0 || length > MAX_RECORD_BYTES) {
+                        break;
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    break;
+                }
+
+                if (checksum(payload) != checksum) {
+                    break;
+                }
+                consumer.accept(validBytes, payload);
+                validBytes += HEADER_BYTES + length;
+            }
+        }
+        return validBytes;
+    }
+
+    // Reads the record starting at position, as returned by append() for the record before it
+    byte[] readAt(long position) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(header, position);
+        header.flip();
+
+        int length = header.getInt();
+        int checksum = header.getInt();
+        if (length < 0 || length > MAX_RECORD_BYTES) {
+            throw new IOException("Invalid record length " + length + " at " + position);
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(payload, position + HEADER_BYTES);
+        if (checksum(payload.array()) != checksum) {
+            throw new IOException("Corrupt record at " + position);
+        }
+        return payload.array();
+    }
+
+    // Writes the records and returns the log position after them, pass it to sync() for durability
+    synchronized long append(List<byte[]> records) throws IOException {
+        int size = 0;
+        for (byte[] record : records) {
+            size += HEADER_BYTES + record.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (byte[] record : records) {
+            buffer.putInt(record.length);
+            buffer.putInt(checksum(record));
+            buffer.put(record);
+        }
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        writePosition += size;
+        return writePosition;
+    }
+
+    // Returns once everything up to position is on disk. A caller that finds its records
+    // already covered by another thread's fsync returns without one of its own.
+    void sync(long position) throws IOException {
+        if (syncedPosition >= position) {
+            return;
+        }
+
+        synchronized (syncLock) {
+            if (syncedPosition >= position) {
+                return;
+            }
+            long target = size();
+            channel.force(false);
+            syncedPosition = target;
+        }
+    }
+
+    // Bytes a record takes in the log, header included
+    static long recordSize(byte[] record) {
+        return HEADER_BYTES + record.length;
+    }
+
+    synchronized long size() {
+        return writePosition;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (syncLock) {
+            if (channel.isOpen()) {
+                channel.force(false);
+                syncedPosition = size();
+                channel.close();
+            }
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Record at " + position + " runs past the end of the log");
+            }
+        }
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
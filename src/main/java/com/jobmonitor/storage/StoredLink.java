@@ -0,0 +1,12 @@
+package com.jobmonitor.storage;
+
+// A stored link and when it was first seen, as kept in the link log and snapshot
+final class StoredLink {
+    final String link;
+    final long firstSeenMillis;
+
+    StoredLink(String link, long firstSeenMillis) {
+        this.link = link;
+        this.firstSeenMillis = firstSeenMillis;
+    }
+}
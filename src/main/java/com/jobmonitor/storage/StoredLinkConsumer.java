@@ -0,0 +1,6 @@
+package com.jobmonitor.storage;
+
+@FunctionalInterface
+public interface StoredLinkConsumer {
+    void accept(String link, long firstSeenMillis);
+}
@@ -0,0 +1,171 @@
+package com.jobmonitor.http;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Serves one resource whose headers each test sets, a request carrying a matching validator gets a 304
+class HttpCacheTest {
+
+    private static final String ETAG = "\"v1\"";
+    private static final String LAST_MODIFIED = "Sun, 18 Oct 2026 10:00:00 GMT";
+
+    @TempDir
+    Path directory;
+
+    private HttpServer server;
+    private URI uri;
+    private volatile Map<String, String> responseHeaders = Map.of();
+    private volatile String body = "first";
+    // The validators each request carried, "-" for none
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/resource", exchange -> {
+            Headers request = exchange.getRequestHeaders();
+            String ifNoneMatch = request.getFirst("If-None-Match");
+            String ifModifiedSince = request.getFirst("If-Modified-Since");
+            requests.add(ifNoneMatch != null ? ifNoneMatch : ifModifiedSince != null ? ifModifiedSince : "-");
+
+            responseHeaders.forEach(exchange.getResponseHeaders()::set);
+            if (ETAG.equals(ifNoneMatch) || LAST_MODIFIED.equals(ifModifiedSince)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/resource");
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void freshResponseIsAnsweredWithoutARequest() throws Exception {
+        responseHeaders = Map.of("Cache-Control", "max-age=3600");
+        HttpCache cache = cache();
+
+        CachedResponse first = cache.send(get());
+        body = "second";
+        CachedResponse second = cache.send(get());
+
+        assertEquals("first", second.body());
+        assertFalse(first.isFromCache());
+        assertTrue(second.isFromCache());
+        assertFalse(second.wasSent());
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    void ageCountsAgainstMaxAge() throws Exception {
+        responseHeaders = Map.of("Cache-Control", "max-age=3600", "Age", "3590");
+        HttpCache cache = cache();
+        cache.send(get());
+        assertFalse(cache.send(get()).wasSent());
+
+        // Spent all its max-age in a shared cache already, and has no validator to revalidate with
+        responseHeaders = Map.of("Cache-Control", "max-age=3600", "Age", "3600");
+        HttpCache aged = cache();
+        aged.send(get());
+        body = "second";
+        CachedResponse second = aged.send(get());
+
+        assertEquals("second", second.body());
+        assertTrue(second.wasSent());
+        assertEquals(3, requests.size());
+    }
+
+    @Test
+    void etagRevalidationTurnsA304IntoTheStoredBody() throws Exception {
+        responseHeaders = Map.of("Cache-Control", "no-cache", "ETag", ETAG);
+        HttpCache cache = cache();
+
+        cache.send(get());
+        body = "changed but not announced";
+        CachedResponse second = cache.send(get());
+
+        assertEquals(200, second.statusCode());
+        assertEquals("first", second.body());
+        assertTrue(second.isFromCache());
+        assertTrue(second.wasSent());
+        assertEquals(List.of("-", ETAG), requests);
+    }
+
+    @Test
+    void lastModifiedRevalidationTurnsA304IntoTheStoredBody() throws Exception {
+        responseHeaders = Map.of("Last-Modified", LAST_MODIFIED);
+        HttpCache cache = cache();
+
+        cache.send(get());
+        CachedResponse second = cache.send(get());
+
+        assertEquals("first", second.body());
+        assertTrue(second.isFromCache());
+        assertEquals(List.of("-", LAST_MODIFIED), requests);
+    }
+
+    @Test
+    void noStoreIsNeverStored() throws Exception {
+        responseHeaders = Map.of("Cache-Control", "no-store, max-age=3600", "ETag", ETAG);
+        HttpCache cache = cache();
+
+        cache.send(get());
+        body = "second";
+        CachedResponse second = cache.send(get());
+
+        assertEquals("second", second.body());
+        assertFalse(second.isFromCache());
+        assertEquals(List.of("-", "-"), requests);
+    }
+
+    @Test
+    void storeSurvivesARestart() throws Exception {
+        responseHeaders = Map.of("Cache-Control", "max-age=3600");
+        HttpCache cache = cache();
+        cache.send(get());
+        cache.close();
+
+        CachedResponse reopened = cache().send(get());
+
+        assertEquals("first", reopened.body());
+        assertFalse(reopened.wasSent());
+        assertEquals(1, requests.size());
+    }
+
+    private HttpCache cache() {
+        return new HttpCache(HttpClients.shared(), directory.resolve("http-cache.bin"), 1 << 20);
+    }
+
+    private HttpRequest get() {
+        return HttpRequest.newBuilder(uri).timeout(HttpClients.REQUEST_TIMEOUT).GET().build();
+    }
+}
@@ -0,0 +1,155 @@
+package com.jobmonitor.notifier;
+
+import com.jobmonitor.model.Job;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class QueuedNotifierTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void spillIsReplayedInOrderAfterARestart() throws Exception {
+        Path spill = directory.resolve("notify-test.spill");
+
+        RecordingNotifier down = new RecordingNotifier(Integer.MAX_VALUE);
+        QueuedNotifier notifier = new QueuedNotifier(down, 10, 0, spill, HOUR);
+        notifier.notify(jobs("a", "b"));
+        await(() -> down.attempts() == 1);
+        // Within the backoff: saved behind the failed batch without another attempt
+        notifier.notify(jobs("c"));
+        await(() -> lines(spill) == 3);
+        notifier.notify(jobs("d"));
+        notifier.close();
+
+        assertEquals(1, down.attempts());
+        assertEquals(4, lines(spill));
+
+        RecordingNotifier up = new RecordingNotifier(0);
+        notifier = new QueuedNotifier(up, 10, 0, spill, HOUR);
+        await(() -> !up.delivered().isEmpty());
+        notifier.notify(jobs("e"));
+        await(() -> up.delivered().size() == 5);
+        notifier.close();
+
+        assertEquals(List.of("a", "b", "c", "d", "e"), up.delivered());
+        assertFalse(Files.exists(spill));
+    }
+
+    @Test
+    void failedDeliveryIsRetriedAfterADoublingBackoff() throws Exception {
+        Path spill = directory.resolve("notify-test.spill");
+        RecordingNotifier flaky = new RecordingNotifier(2);
+        QueuedNotifier notifier = new QueuedNotifier(flaky, 10, 0, spill, 300);
+
+        notifier.notify(jobs("a", "b"));
+        await(() -> flaky.delivered().size() == 2);
+        notifier.close();
+
+        List<Long> attempts = flaky.attemptMillis();
+        assertEquals(3, attempts.size());
+        assertTrue(attempts.get(1) - attempts.get(0) >= 300, "first retry after " + (attempts.get(1) - attempts.get(0)));
+        assertTrue(attempts.get(2) - attempts.get(1) >= 600, "second retry after " + (attempts.get(2) - attempts.get(1)));
+        assertEquals(List.of("a", "b"), flaky.delivered());
+        assertFalse(Files.exists(spill));
+    }
+
+    @Test
+    void interruptedWorkerKeepsDelivering() throws Exception {
+        RecordingNotifier delegate = new RecordingNotifier(0);
+        QueuedNotifier notifier = new QueuedNotifier(delegate, 10, 0, directory.resolve("notify-test.spill"), HOUR);
+
+        workerOf(delegate).interrupt();
+        notifier.notify(jobs("a"));
+        await(() -> delegate.delivered().size() == 1);
+        notifier.close();
+
+        assertEquals(List.of("a"), delegate.delivered());
+    }
+
+    private static Thread workerOf(Notifier delegate) {
+        String name = "notifier-" + delegate.getClass().getSimpleName();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals(name) && thread.isAlive()) {
+                return thread;
+            }
+        }
+        throw new AssertionError("no worker thread " + name);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("condition not met within 10s");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private static int lines(Path spill) {
+        try {
+            return Files.exists(spill) ? Files.readAllLines(spill).size() : 0;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static List<Job> jobs(String... links) {
+        List<Job> jobs = new ArrayList<>();
+        for (String link : links) {
+            jobs.add(new Job(link, "Title " + link, "", "Test"));
+        }
+        return jobs;
+    }
+
+    // Fails the first failures deliveries, then records the links it is sent
+    private static class RecordingNotifier implements Notifier {
+        private final int failures;
+        private final List<Long> attemptMillis = new ArrayList<>();
+        private final List<String> delivered = new ArrayList<>();
+
+        RecordingNotifier(int failures) {
+            this.failures = failures;
+        }
+
+        @Override
+        public synchronized void notify(List<Job> jobs) throws IOException {
+            attemptMillis.add(System.currentTimeMillis());
+            if (attemptMillis.size() <= failures) {
+                throw new IOException("down");
+            }
+            for (Job job : jobs) {
+                delivered.add(job.getLink());
+            }
+        }
+
+        synchronized int attempts() {
+            return attemptMillis.size();
+        }
+
+        synchronized List<Long> attemptMillis() {
+            return new ArrayList<>(attemptMillis);
+        }
+
+        synchronized List<String> delivered() {
+            return new ArrayList<>(delivered);
+        }
+    }
+}
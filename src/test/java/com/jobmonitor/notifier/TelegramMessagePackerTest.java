@@ -0,0 +1,136 @@
+package com.jobmonitor.notifier;
+
+import com.jobmonitor.model.Job;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TelegramMessagePackerTest {
+
+    private static final Pattern TAG = Pattern.compile("<[^>]*>");
+    private static final Pattern HREF = Pattern.compile("href=\"([^\"]*)\"");
+    private static final Pattern AMPERSAND = Pattern.compile("&(?!amp;|lt;|gt;|quot;)");
+
+    @Test
+    void everyMessageFitsTheLimit() {
+        List<Job> jobs = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            jobs.add(new Job("https://a.com/jobs?id=" + i + "&src=x", "R&D <Senior> \"Engineer\" & Co ".repeat(4) + i, ""));
+        }
+
+        for (boolean html : new boolean[]{false, true}) {
+            List<String> messages = new TelegramMessagePacker(html).pack(jobs);
+            assertTrue(messages.size() > 1);
+            for (String message : messages) {
+                // Telegram counts the limit on the text left after parsing the markup
+                int length = html ? visibleText(message).length() : message.length();
+                assertTrue(length <= TelegramMessagePacker.MAX_MESSAGE_LENGTH, "message of " + length);
+            }
+        }
+    }
+
+    @Test
+    void escapeSequencesAreNeverSplit() {
+        List<Job> jobs = List.of(
+                new Job("https://a.com/1?a=1&b=2", "&".repeat(5000), ""),
+                new Job("https://a.com/2", "<\"&\">".repeat(1000), ""));
+
+        List<String> messages = new TelegramMessagePacker(true).pack(jobs);
+
+        for (String message : messages) {
+            assertFalse(AMPERSAND.matcher(message).find(), "bare or split entity in " + message);
+            assertTrue(visibleText(message).length() <= TelegramMessagePacker.MAX_MESSAGE_LENGTH);
+        }
+        assertEquals(List.of("https://a.com/1?a=1&b=2", "https://a.com/2"), htmlLinks(messages));
+    }
+
+    @Test
+    void oversizedJobIsTruncatedNotDropped() {
+        List<Job> jobs = List.of(new Job("https://a.com/huge", "x".repeat(10_000), ""));
+
+        for (boolean html : new boolean[]{false, true}) {
+            List<String> messages = new TelegramMessagePacker(html).pack(jobs);
+            String all = String.join("\n", messages);
+
+            assertTrue(all.contains("https://a.com/huge"));
+            assertTrue(all.contains("x..."));
+            for (String message : messages) {
+                int length = html ? visibleText(message).length() : message.length();
+                assertTrue(length <= TelegramMessagePacker.MAX_MESSAGE_LENGTH, "message of " + length);
+            }
+        }
+    }
+
+    @Test
+    void truncationKeepsSurrogatePairsWhole() {
+        String title = "a" + "\uD83D\uDE00".repeat(5000);
+
+        for (boolean html : new boolean[]{false, true}) {
+            for (String message : new TelegramMessagePacker(html).pack(List.of(new Job("https://a.com/1", title, "")))) {
+                for (int i = 0; i < message.length(); i++) {
+                    char c = message.charAt(i);
+                    if (Character.isHighSurrogate(c)) {
+                        assertTrue(i + 1 < message.length() && Character.isLowSurrogate(message.charAt(++i)));
+                    } else {
+                        assertFalse(Character.isLowSurrogate(c));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void jobsKeepTheirOrderAcrossMessages() {
+        List<Job> jobs = new ArrayList<>();
+        List<String> links = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            links.add("https://a.com/jobs/" + i);
+            jobs.add(new Job(links.get(i), "Software Engineer " + i, ""));
+        }
+
+        List<String> htmlMessages = new TelegramMessagePacker(true).pack(jobs);
+        List<String> plainMessages = new TelegramMessagePacker(false).pack(jobs);
+
+        assertTrue(htmlMessages.size() > 1 && plainMessages.size() > 1);
+        assertEquals(links, htmlLinks(htmlMessages));
+        List<String> plainLinks = new ArrayList<>();
+        int number = 1;
+        for (String message : plainMessages) {
+            for (String line : message.split("\n")) {
+                if (line.startsWith("https://")) {
+                    plainLinks.add(line);
+                } else if (!line.isEmpty() && !line.startsWith("Found")) {
+                    assertTrue(line.startsWith(number++ + ". "), line);
+                }
+            }
+        }
+        assertEquals(links, plainLinks);
+    }
+
+    // The text Telegram is left with after parsing the HTML markup
+    private static String visibleText(String html) {
+        return TAG.matcher(html).replaceAll("")
+                .replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&quot;", "\"")
+                .replace("&amp;", "&");
+    }
+
+    private static List<String> htmlLinks(List<String> messages) {
+        List<String> links = new ArrayList<>();
+        for (String message : messages) {
+            Matcher href = HREF.matcher(message);
+            while (href.find()) {
+                links.add(href.group(1).replace("&amp;", "&"));
+            }
+        }
+        return links;
+    }
+}
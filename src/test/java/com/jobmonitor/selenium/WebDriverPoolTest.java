@@ -0,0 +1,137 @@
+package com.jobmonitor.selenium;
+
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WebDriverPoolTest {
+
+    private static final Duration LONG_AGO = Duration.ofHours(1);
+
+    private final List<StubSession> sessions = new ArrayList<>();
+
+    @Test
+    void neverHandsOutMoreThanMaxSize() throws InterruptedException {
+        WebDriverPool pool = pool(2, LONG_AGO);
+
+        WebDriver first = pool.checkout();
+        WebDriver second = pool.checkout();
+        assertNull(pool.tryCheckout(Duration.ofMillis(50)));
+
+        pool.checkin(first);
+        assertSame(first, pool.tryCheckout(Duration.ofMillis(50)));
+        assertNotSame(first, second);
+        assertEquals(2, sessions.size());
+        pool.close();
+    }
+
+    @Test
+    void retiresSessionsPastMaxAge() throws InterruptedException {
+        WebDriverPool pool = pool(1, Duration.ofMillis(50));
+
+        WebDriver first = pool.checkout();
+        pool.checkin(first);
+        Thread.sleep(100);
+        WebDriver second = pool.checkout();
+
+        assertNotSame(first, second);
+        assertTrue(sessions.get(0).quit);
+        // Also when it expires while checked out
+        Thread.sleep(100);
+        pool.checkin(second);
+        assertTrue(sessions.get(1).quit);
+        pool.close();
+    }
+
+    @Test
+    void discardsAnIdleSessionThatFailsItsHealthCheck() throws InterruptedException {
+        WebDriverPool pool = pool(1, LONG_AGO);
+
+        WebDriver first = pool.checkout();
+        pool.checkin(first);
+        sessions.get(0).broken = true;
+        WebDriver second = pool.checkout();
+
+        assertNotSame(first, second);
+        assertTrue(sessions.get(0).quit);
+        assertFalse(sessions.get(1).quit);
+        pool.close();
+    }
+
+    @Test
+    void closeQuitsIdleAndCheckedOutSessions() throws InterruptedException {
+        WebDriverPool pool = pool(2, LONG_AGO);
+        WebDriver leased = pool.checkout();
+        pool.checkin(pool.checkout());
+
+        pool.close();
+
+        assertEquals(2, sessions.size());
+        assertTrue(sessions.get(0).quit);
+        assertTrue(sessions.get(1).quit);
+        assertThrows(IllegalStateException.class, pool::checkout);
+        // A scraper returning its session late is harmless
+        pool.checkin(leased);
+    }
+
+    private WebDriverPool pool(int maxSize, Duration maxAge) {
+        return new WebDriverPool(() -> {
+            StubSession session = new StubSession();
+            sessions.add(session);
+            return session.driver;
+        }, maxSize, maxAge);
+    }
+
+    // A WebDriver that accepts every call; getWindowHandle() is the health check and fails once broken
+    private static class StubSession {
+        final WebDriver driver = stub(WebDriver.class);
+        volatile boolean broken;
+        volatile boolean quit;
+
+        private <T> T stub(Class<T> type) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "quit" -> quit = true;
+                    case "getWindowHandle" -> {
+                        if (broken) {
+                            throw new WebDriverException("session gone");
+                        }
+                        return "main";
+                    }
+                    case "getWindowHandles" -> {
+                        return Set.of("main");
+                    }
+                    case "equals" -> {
+                        return proxy == args[0];
+                    }
+                    case "hashCode" -> {
+                        return System.identityHashCode(proxy);
+                    }
+                    case "toString" -> {
+                        return "StubSession";
+                    }
+                    default -> {
+                        if (method.getReturnType().isInterface()) {
+                            return stub(method.getReturnType());
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.jobmonitor.service;
+
+import com.jobmonitor.config.AppConfig;
+import com.jobmonitor.http.HttpCache;
+import com.jobmonitor.http.HttpClients;
+import com.jobmonitor.model.Job;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Replays recorded Custom Search pages from a local server. The first page estimates 95 results (10 pages)
+// but the third page is the last one, as happens with Google's estimates.
+class GoogleSearchServiceTest {
+
+    private static final Pattern START = Pattern.compile("[?&]start=(\\d+)");
+
+    private HttpServer server;
+    private String baseUrl;
+    @TempDir
+    Path directory;
+
+    private final List<Integer> requestedPages = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/customsearch/v1", exchange -> {
+            Matcher start = START.matcher(exchange.getRequestURI().getRawQuery());
+            int page = start.find() ? (Integer.parseInt(start.group(1)) - 1) / 10 + 1 : 1;
+            requestedPages.add(page);
+
+            try (InputStream in = GoogleSearchServiceTest.class.getResourceAsStream("/google/page-" + page + ".json")) {
+                if (in == null) {
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+                }
+                byte[] body = in.readAllBytes();
+                exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+                exchange.getResponseHeaders().set("Cache-Control", "max-age=3600");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/customsearch/v1";
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void chargesOnlyRequestsActuallySent() throws Exception {
+        RequestBudget budget = new RequestBudget(100, ZoneId.of("America/Los_Angeles"), null);
+
+        List<Job> jobs = service(budget).fetchJobs();
+
+        assertEquals(23, jobs.size());
+        // Pages 2-4 prefetched, page 5 once page 2 was read, nothing past the estimate's first few pages
+        assertEquals(5, budget.used());
+        // Pages 4 and 5 are cancelled once page 3 turns out to be the last, one may never reach the server
+        awaitRequests(5);
+        List<Integer> pages = requestedPages.stream().sorted().toList();
+        assertEquals(List.of(1, 2, 3), pages.subList(0, 3));
+        assertTrue(pages.size() <= budget.used());
+    }
+
+    @Test
+    void stopsWhenTheDailyBudgetIsUsedUp() throws Exception {
+        RequestBudget budget = new RequestBudget(2, ZoneId.of("America/Los_Angeles"), null);
+
+        List<Job> jobs = service(budget).fetchJobs();
+
+        assertEquals(20, jobs.size());
+        assertEquals(2, budget.used());
+        assertEquals(List.of(1, 2), requestedPages.stream().sorted().toList());
+    }
+
+    @Test
+    void pagesAnsweredByTheCacheCostNothing() throws Exception {
+        RequestBudget budget = new RequestBudget(100, ZoneId.of("America/Los_Angeles"), null);
+        HttpCache cache = new HttpCache(HttpClients.shared(), directory.resolve("http-cache.bin"), 1 << 20);
+
+        service(budget, cache, false).fetchJobs();
+        assertEquals(3, budget.used());
+        assertEquals(List.of(1, 2, 3), requestedPages);
+
+        List<Job> jobs = service(budget, cache, false).fetchJobs();
+
+        assertEquals(23, jobs.size());
+        assertEquals(3, budget.used());
+        assertEquals(3, requestedPages.size());
+    }
+
+    @Test
+    void prefetchedPagesAreChargedWhenSent() throws Exception {
+        RequestBudget budget = new RequestBudget(100, ZoneId.of("America/Los_Angeles"), null);
+        HttpCache cache = new HttpCache(HttpClients.shared(), directory.resolve("http-cache.bin"), 1 << 20);
+
+        service(budget, cache, true).fetchJobs();
+        // Cancelled prefetches that do reach the server arrive a little later
+        Thread.sleep(200);
+        int sent = requestedPages.size();
+        int used = budget.used();
+
+        List<Job> jobs = service(budget, cache, true).fetchJobs();
+        Thread.sleep(200);
+
+        // Pages 1-3 come fresh from the cache; pages 4 and 5 only if the first run's cancelled requests
+        // were not stored, and then every one that reaches the server has been charged
+        assertEquals(23, jobs.size());
+        List<Integer> again = requestedPages.subList(sent, requestedPages.size());
+        assertTrue(again.stream().allMatch(page -> page > 3), again.toString());
+        int charged = budget.used() - used;
+        assertTrue(again.size() <= charged && charged <= 2, again + " charged " + charged);
+    }
+
+    private GoogleSearchService service(RequestBudget budget) {
+        return service(budget, HttpCache.disabled(HttpClients.shared()), true);
+    }
+
+    private GoogleSearchService service(RequestBudget budget, HttpCache cache, boolean concurrentPages) {
+        AppConfig config = new AppConfig.Builder()
+                .positions(List.of("engineer"))
+                .levels(List.of("senior"))
+                .locations(List.of("Israel"))
+                .excludedPageTerms(List.of())
+                .excludedTitleTerms(List.of("manager"))
+                .apiKey("test-key")
+                .searchEngineId("test-cx")
+                .googleConcurrentPages(concurrentPages)
+                .build();
+        return new GoogleSearchService(config, new JobFilter(config), cache, baseUrl, budget);
+    }
+
+    // Prefetched pages still in flight when paging stops reach the server a little later
+    private void awaitRequests(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (requestedPages.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
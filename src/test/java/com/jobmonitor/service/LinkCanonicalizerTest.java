@@ -0,0 +1,75 @@
+package com.jobmonitor.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class LinkCanonicalizerTest {
+
+    @Test
+    void stripsDefaultPortsOnly() {
+        assertEquals("http://a.com/job", LinkCanonicalizer.canonicalize("http://a.com:80/job"));
+        assertEquals("https://a.com/job", LinkCanonicalizer.canonicalize("https://a.com:443/job"));
+        assertEquals("https://a.com/job", LinkCanonicalizer.canonicalize("https://a.com:443/job/"));
+        // Not the default port of the scheme
+        assertEquals("http://a.com:443/job", LinkCanonicalizer.canonicalize("http://a.com:443/job"));
+        assertEquals("https://a.com:80/job", LinkCanonicalizer.canonicalize("https://a.com:80/job"));
+        assertEquals("https://a.com:8443/job", LinkCanonicalizer.canonicalize("https://a.com:8443/job"));
+    }
+
+    @Test
+    void foldsSchemeAndHostButNotPath() {
+        assertEquals("https://careers.a.com/Jobs/R-123",
+                LinkCanonicalizer.canonicalize("HTTPS://Careers.A.com/Jobs/R-123"));
+    }
+
+    @Test
+    void sortsQueryParameters() {
+        assertEquals("https://a.com/job?a=1&b=2&c=3", LinkCanonicalizer.canonicalize("https://a.com/job?c=3&a=1&b=2"));
+    }
+
+    @Test
+    void dropsTrackingParameters() {
+        assertEquals("https://a.com/job?id=7", LinkCanonicalizer.canonicalize(
+                "https://a.com/job?utm_source=x&id=7&UTM_Medium=y&gclid=1&fbclid=2&mc_cid=3&mc_eid=4&mc_tc=5"));
+        // Only whole names or the utm_ and mc_ prefixes count
+        assertEquals("https://a.com/job?fbclidx=2&gclids=1", LinkCanonicalizer.canonicalize(
+                "https://a.com/job?gclids=1&fbclidx=2"));
+        assertEquals("https://a.com/job?mcid=1&utm=2", LinkCanonicalizer.canonicalize(
+                "https://a.com/job?utm=2&mcid=1"));
+    }
+
+    @Test
+    void dropsTheFragment() {
+        assertEquals("https://a.com/job", LinkCanonicalizer.canonicalize("https://a.com/job#apply"));
+        assertEquals("https://a.com/job?a=1", LinkCanonicalizer.canonicalize("https://a.com/job?a=1#x?b=2"));
+    }
+
+    @Test
+    void emptyQueryLeavesNoQuestionMark() {
+        assertEquals("https://a.com/job", LinkCanonicalizer.canonicalize("https://a.com/job?utm_source=x&gclid=1"));
+        assertEquals("https://a.com/job", LinkCanonicalizer.canonicalize("https://a.com/job/?"));
+        assertEquals("https://a.com/job", LinkCanonicalizer.canonicalize("https://a.com/job?&"));
+    }
+
+    @Test
+    void percentEncodedKeysAreKeptAsWritten() {
+        // Keys are not decoded: they sort by their encoded form and an encoded tracking name is kept
+        assertEquals("https://a.com/job?%61=2&b=1", LinkCanonicalizer.canonicalize("https://a.com/job?b=1&%61=2"));
+        assertEquals("https://a.com/job?utm%5Fsource=x", LinkCanonicalizer.canonicalize("https://a.com/job?utm%5Fsource=x"));
+    }
+
+    @Test
+    void canonicalLinkIsReturnedUnchanged() {
+        String withoutQuery = "https://a.com/jobs/1";
+        String sortedQuery = "https://a.com/jobs?a=1&b=2";
+        assertSame(withoutQuery, LinkCanonicalizer.canonicalize(withoutQuery));
+        assertSame(sortedQuery, LinkCanonicalizer.canonicalize(sortedQuery));
+    }
+
+    @Test
+    void linkWithoutSchemeIsOnlyTrimmed() {
+        assertEquals("A.com/Job/?b=1&a=2", LinkCanonicalizer.canonicalize("  A.com/Job/?b=1&a=2 "));
+    }
+}
@@ -0,0 +1,96 @@
+package com.jobmonitor.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LinkIndexTest {
+
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+    private static final long START = 20_000 * DAY;
+
+    @Test
+    void exactModeTellsApartLinksSharingAFingerprint() {
+        LinkIndex index = new LinkIndex(true, 0, key -> 42);
+
+        assertTrue(index.add("https://a.com/1", START));
+        assertTrue(index.add("https://a.com/2", START));
+        assertFalse(index.add("https://A.com/1", START));
+
+        assertTrue(index.contains("https://a.com/1"));
+        assertTrue(index.contains("https://a.com/2"));
+        assertFalse(index.contains("https://a.com/3"));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void plainModeTreatsASharedFingerprintAsTheSameLink() {
+        LinkIndex index = new LinkIndex(false, 0, key -> 42);
+
+        assertTrue(index.add("https://a.com/1", START));
+        assertFalse(index.add("https://a.com/2", START));
+        assertTrue(index.contains("https://a.com/3"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void growsAndKeepsEveryLinkAcrossRehashes() {
+        for (boolean exact : new boolean[]{false, true}) {
+            LinkIndex index = new LinkIndex(exact);
+            long before = index.memoryBytes();
+
+            for (int i = 0; i < 5000; i++) {
+                assertTrue(index.add("https://a.com/jobs/" + i, START));
+            }
+
+            assertEquals(5000, index.size());
+            assertTrue(index.memoryBytes() > before);
+            for (int i = 0; i < 5000; i++) {
+                assertTrue(index.contains("https://a.com/jobs/" + i), "jobs/" + i);
+            }
+            assertFalse(index.contains("https://a.com/jobs/5000"));
+        }
+    }
+
+    @Test
+    void evictionKeepsLinksFurtherDownTheProbeSequence() {
+        // Distinct fingerprints that all start probing at slot 0
+        LinkIndex index = new LinkIndex(true, 0, key -> (long) key[key.length - 1] << 50);
+        index.add("https://a.com/1", START);
+        index.add("https://a.com/2", START + 5 * DAY);
+        index.add("https://a.com/3", START);
+        index.add("https://a.com/4", START + 5 * DAY);
+
+        assertEquals(2, index.evictOlderThan(START + DAY));
+
+        assertEquals(2, index.size());
+        assertFalse(index.contains("https://a.com/1"));
+        assertTrue(index.contains("https://a.com/2"));
+        assertFalse(index.contains("https://a.com/3"));
+        assertTrue(index.contains("https://a.com/4"));
+        assertTrue(index.add("https://a.com/1", START + 5 * DAY));
+        assertEquals(0, index.evictOlderThan(START + DAY));
+    }
+
+    @Test
+    void touchExtendsRetention() {
+        LinkIndex index = new LinkIndex(false);
+        index.add("https://a.com/fetched", START);
+        index.add("https://a.com/gone", START);
+
+        index.touch("https://a.com/fetched", START + 10 * DAY);
+        // Neither moves a link back nor adds an unknown one
+        index.touch("https://a.com/fetched", START);
+        index.touch("https://a.com/unknown", START + 10 * DAY);
+
+        assertEquals(1, index.evictOlderThan(START + 5 * DAY));
+        assertTrue(index.contains("https://a.com/fetched"));
+        assertFalse(index.contains("https://a.com/gone"));
+        assertFalse(index.contains("https://a.com/unknown"));
+        assertEquals(1, index.size());
+    }
+}
@@ -0,0 +1,92 @@
+package com.jobmonitor.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NearDuplicateIndexTest {
+
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+    private static final long START = 20_000 * DAY;
+    private static final long HASH = 0x5DEECE66DL * 0x9E3779B97F4A7C15L;
+
+    @Test
+    void duplicateWithinTheMaxDistanceOnly() {
+        for (int maxDistance : new int[]{0, 3, 15}) {
+            // Flipped bits spread over the bands, and all of them in the lowest bits
+            for (long spread : new long[]{0x1111_1111_1111_1111L, 0xFFFFL}) {
+                NearDuplicateIndex index = new NearDuplicateIndex(maxDistance);
+                index.isDuplicateOrAdd(HASH, START);
+
+                assertTrue(index.isDuplicateOrAdd(HASH ^ bits(spread, maxDistance), START), "at " + maxDistance);
+                assertFalse(index.isDuplicateOrAdd(HASH ^ bits(spread, maxDistance + 1), START), "past " + maxDistance);
+            }
+        }
+    }
+
+    @Test
+    void repostedTextIsADuplicate() {
+        NearDuplicateIndex index = new NearDuplicateIndex(3);
+        String snippet = "Build and operate the payment platform with Java, Kafka and Kubernetes in a small team.";
+
+        assertFalse(index.isDuplicateOrAdd("Senior Backend Engineer, Payments", snippet, START));
+        assertTrue(index.isDuplicateOrAdd("Senior backend engineer - payments", snippet.toUpperCase(), START));
+        assertFalse(index.isDuplicateOrAdd("Data Analyst, Marketing", "Own the marketing dashboards and weekly "
+                + "reports for the growth team, SQL and Python.", START));
+        // Too little text to call anything a duplicate, and not indexed either
+        assertFalse(index.isDuplicateOrAdd("Software Engineer", "", START));
+        assertFalse(index.isDuplicateOrAdd("Software Engineer", "", START));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void jobsNotSeenSinceTheCutoffExpire() {
+        NearDuplicateIndex index = new NearDuplicateIndex(3);
+        index.isDuplicateOrAdd(HASH, START);
+        index.isDuplicateOrAdd(~HASH, START + 5 * DAY);
+
+        assertEquals(0, index.evictOlderThan(START));
+        assertEquals(1, index.evictOlderThan(START + 2 * DAY));
+
+        assertEquals(1, index.size());
+        assertFalse(index.isDuplicateOrAdd(HASH, START + 5 * DAY));
+        assertTrue(index.isDuplicateOrAdd(~HASH, START + 5 * DAY));
+    }
+
+    @Test
+    void duplicateHitRefreshesTheLastSeenDay() {
+        NearDuplicateIndex index = new NearDuplicateIndex(3);
+        index.isDuplicateOrAdd(HASH, START);
+        index.isDuplicateOrAdd(~HASH, START);
+
+        assertTrue(index.isDuplicateOrAdd(HASH ^ 1, START + 10 * DAY));
+        // An older sighting does not move it back
+        assertTrue(index.isDuplicateOrAdd(HASH, START));
+
+        assertEquals(1, index.evictOlderThan(START + 5 * DAY));
+        assertTrue(index.isDuplicateOrAdd(HASH, START + 10 * DAY));
+        assertFalse(index.isDuplicateOrAdd(~HASH, START + 10 * DAY));
+    }
+
+    @Test
+    void rejectsDistancesWithoutEnoughBits() {
+        assertThrows(IllegalArgumentException.class, () -> new NearDuplicateIndex(16));
+        assertThrows(IllegalArgumentException.class, () -> new NearDuplicateIndex(-1));
+    }
+
+    // The lowest count set bits of mask
+    private static long bits(long mask, int count) {
+        long bits = 0;
+        for (int i = 0; i < count; i++) {
+            long lowest = Long.lowestOneBit(mask);
+            bits |= lowest;
+            mask &= ~lowest;
+        }
+        return bits;
+    }
+}
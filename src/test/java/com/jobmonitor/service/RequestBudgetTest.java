@@ -0,0 +1,50 @@
+package com.jobmonitor.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestBudgetTest {
+
+    private static final ZoneId PACIFIC = ZoneId.of("America/Los_Angeles");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void countSurvivesARestart() {
+        Path file = directory.resolve("budget.txt");
+        Clock clock = Clock.fixed(Instant.parse("2026-10-18T12:00:00Z"), PACIFIC);
+
+        RequestBudget before = new RequestBudget(3, clock, file);
+        assertTrue(before.tryAcquire());
+        assertTrue(before.tryAcquire());
+
+        RequestBudget after = new RequestBudget(3, clock, file);
+        assertEquals(2, after.used());
+        assertTrue(after.tryAcquire());
+        assertFalse(after.tryAcquire());
+    }
+
+    @Test
+    void dayEndsAtPacificMidnight() {
+        Path file = directory.resolve("budget.txt");
+
+        // 06:30 UTC is still the evening before in Los Angeles, 07:30 UTC is past midnight there
+        RequestBudget evening = new RequestBudget(1, Clock.fixed(Instant.parse("2026-10-18T06:30:00Z"), PACIFIC), file);
+        assertTrue(evening.tryAcquire());
+        assertFalse(evening.tryAcquire());
+
+        RequestBudget midnight = new RequestBudget(1, Clock.fixed(Instant.parse("2026-10-18T07:30:00Z"), PACIFIC), file);
+        assertEquals(0, midnight.used());
+        assertTrue(midnight.tryAcquire());
+    }
+}
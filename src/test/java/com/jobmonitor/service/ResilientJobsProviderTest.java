@@ -0,0 +1,156 @@
+package com.jobmonitor.service;
+
+import com.jobmonitor.config.AppConfig;
+import com.jobmonitor.http.HttpStatusException;
+import com.jobmonitor.model.Job;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.TimeoutException;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Window of 5 runs, opens at 60% failures for 10 minutes. No retries, so no backoff sleeps.
+class ResilientJobsProviderTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    private final TestClock clock = new TestClock();
+    private final ScriptedProvider delegate = new ScriptedProvider();
+    private final ResilientJobsProvider provider = new ResilientJobsProvider(delegate, new AppConfig.Builder()
+            .positions(List.of("engineer"))
+            .levels(List.of("senior"))
+            .excludedPageTerms(List.of())
+            .excludedTitleTerms(List.of())
+            .providerRetries(0)
+            .circuitWindow(5)
+            .circuitFailureRatePercent(60)
+            .circuitOpenMinutes(10)
+            .build(), clock);
+
+    @Test
+    void staysClosedUntilTheWindowHoldsEnoughFailures() {
+        failRuns(2);
+        succeedRun();
+        failRuns(1);
+        assertEquals(4, delegate.calls);
+
+        // Four failures out of five runs
+        failRuns(1);
+        assertThrows(ProviderSkippedException.class, () -> provider.fetchJobs());
+        assertEquals(5, delegate.calls);
+    }
+
+    @Test
+    void halfOpenTrialClosesTheCircuitOnSuccess() throws Exception {
+        failRuns(5);
+
+        clock.advance(10 * MINUTE - 1);
+        assertThrows(ProviderSkippedException.class, () -> provider.fetchJobs());
+        clock.advance(1);
+        succeedRun();
+        assertEquals(6, delegate.calls);
+
+        // The window starts over, a single failure does not open it again
+        failRuns(1);
+        succeedRun();
+        assertEquals(8, delegate.calls);
+    }
+
+    @Test
+    void failedTrialOpensTheCircuitForTwiceAsLong() {
+        failRuns(5);
+
+        // Open for 10 minutes, then 20, then 40
+        clock.advance(10 * MINUTE);
+        failRuns(1);
+        clock.advance(10 * MINUTE);
+        assertThrows(ProviderSkippedException.class, () -> provider.fetchJobs());
+        clock.advance(10 * MINUTE);
+        failRuns(1);
+
+        clock.advance(39 * MINUTE);
+        assertThrows(ProviderSkippedException.class, () -> provider.fetchJobs());
+        clock.advance(MINUTE);
+        succeedRun();
+        assertEquals(8, delegate.calls);
+    }
+
+    @Test
+    void transientErrorsAreFoundAnywhereInTheCauseChain() {
+        assertTrue(ResilientJobsProvider.isTransient(
+                new RuntimeException(new ExecutionException(new TimeoutException("page load")))));
+        assertTrue(ResilientJobsProvider.isTransient(new IllegalStateException(new IOException("reset"))));
+        assertTrue(ResilientJobsProvider.isTransient(new HttpStatusException("Search", 503)));
+        assertFalse(ResilientJobsProvider.isTransient(new HttpStatusException("Search", 404)));
+        assertFalse(ResilientJobsProvider.isTransient(new IllegalStateException("layout changed")));
+    }
+
+    private void failRuns(int count) {
+        for (int i = 0; i < count; i++) {
+            delegate.fail = true;
+            assertThrows(IllegalStateException.class, () -> provider.fetchJobs());
+        }
+    }
+
+    private void succeedRun() {
+        delegate.fail = false;
+        try {
+            assertEquals(1, provider.fetchJobs().size());
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static final class ScriptedProvider implements JobsProvider {
+        boolean fail;
+        int calls;
+
+        @Override
+        public String getName() {
+            return "scripted";
+        }
+
+        @Override
+        public List<Job> fetchJobs() {
+            calls++;
+            if (fail) {
+                throw new IllegalStateException("layout changed");
+            }
+            return List.of(new Job("https://example.com/1", "Senior Engineer", ""));
+        }
+    }
+
+    private static final class TestClock extends Clock {
+        private long millis = Instant.parse("2026-10-18T12:00:00Z").toEpochMilli();
+
+        void advance(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
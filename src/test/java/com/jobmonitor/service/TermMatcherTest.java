@@ -0,0 +1,80 @@
+package com.jobmonitor.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TermMatcherTest {
+
+    @Test
+    void acronymsOnlyMatchAsWholeWords() {
+        TermMatcher matcher = words(List.of("IT"));
+
+        assertFalse(matcher.containsAny("Working with senior engineers"));
+        assertFalse(matcher.containsAny("ITALY office"));
+        assertTrue(matcher.containsAny("IT support specialist"));
+        assertTrue(matcher.containsAny("Head of IT"));
+        assertTrue(matcher.containsAny("IT/Helpdesk"));
+    }
+
+    @Test
+    void longerTermsMatchAtAWordStartAndMayRunOn() {
+        TermMatcher matcher = words(List.of("lead"));
+
+        assertTrue(matcher.containsAny("Lead Engineer"));
+        assertTrue(matcher.containsAny("Team Leader"));
+        assertFalse(matcher.containsAny("Do not mislead candidates"));
+    }
+
+    @Test
+    void termsEndingInANonLetter() {
+        TermMatcher matcher = words(List.of("3+", "c++"));
+
+        // "3+" does not start with a letter, so it matches anywhere
+        assertTrue(matcher.containsAny("13+ years of experience"));
+        assertTrue(matcher.containsAny("Strong C++ skills"));
+        assertTrue(matcher.containsAny("C++17"));
+        assertFalse(matcher.containsAny("abc++ toolkit"));
+        assertFalse(matcher.containsAny("C programming"));
+    }
+
+    @Test
+    void foldsCase() {
+        TermMatcher matcher = words(List.of("Manager"));
+
+        assertTrue(matcher.containsAny("ENGINEERING MANAGER"));
+        assertTrue(matcher.containsAny("engineering manager"));
+    }
+
+    @Test
+    void withoutWholeWordsTermsMatchAnywhere() {
+        TermMatcher matcher = TermMatcher.builder().add(0, List.of("IT", "lead")).build();
+
+        assertTrue(matcher.containsAny("with"));
+        assertTrue(matcher.containsAny("mislead"));
+    }
+
+    @Test
+    void findsOverlappingTermsInConfigurationOrder() {
+        TermMatcher matcher = TermMatcher.builder()
+                .add(0, List.of("engineering manager", "manager", "engineer"))
+                .add(1, List.of("senior"))
+                .wholeWords(true)
+                .build();
+        String title = "Senior Engineering Manager";
+
+        assertEquals(List.of("engineering manager", "manager", "engineer"), matcher.findTerms(title, 0));
+        assertEquals(List.of("senior"), matcher.findTerms(title, 1));
+        assertEquals(0b11, matcher.matchCategories(title));
+        // Configuration order, not the order in the text
+        assertEquals(List.of("manager", "engineer"), matcher.findTerms("Engineering: Manager", 0));
+    }
+
+    private static TermMatcher words(List<String> terms) {
+        return TermMatcher.builder().add(0, terms).wholeWords(true).build();
+    }
+}
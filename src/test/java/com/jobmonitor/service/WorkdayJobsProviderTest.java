@@ -0,0 +1,152 @@
+package com.jobmonitor.service;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.jobmonitor.config.AppConfig;
+import com.jobmonitor.http.HttpCache;
+import com.jobmonitor.http.HttpClients;
+import com.jobmonitor.model.Job;
+import com.jobmonitor.storage.DescriptionCache;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Replays recorded CXS responses from a local server: the search pages (20 + 3 postings) and two job details
+class WorkdayJobsProviderTest {
+
+    private static final String ISRAEL = "084562884af243748dad7c84c304d89a";
+
+    private HttpServer server;
+    private String careersUrl;
+    private final List<JsonObject> searchBodies = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> detailPaths = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/wday/cxs/127/Site/jobs", exchange -> {
+            JsonObject body = JsonParser.parseString(
+                    new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)).getAsJsonObject();
+            searchBodies.add(body);
+            respond(exchange, "jobs-page-" + body.get("offset").getAsInt() / 20 + ".json");
+        });
+        server.createContext("/wday/cxs/127/Site/job/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            detailPaths.add(path);
+            respond(exchange, path.contains("Senior-Software-Engineer")
+                    ? "job-detail-valid.json"
+                    : "job-detail-invalid.json");
+        });
+        server.start();
+        careersUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/en-US/Site";
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void pagesThroughAllResultsAndReportsSeenLinks() throws Exception {
+        Set<String> seen = Set.of(
+                careersUrl + "/job/Raanana-Israel/Senior-Software-Engineer_R-040000",
+                careersUrl + "/job/Raanana-Israel/Senior-Backend-Engineer_R-040020");
+        List<Job> jobs = new ArrayList<>();
+        List<String> reportedSeen = new ArrayList<>();
+
+        provider(careersUrl + "?locationCountry=" + ISRAEL, false).streamJobs(seenLinks(seen), new JobSink() {
+            @Override
+            public void accept(Job job) {
+                jobs.add(job);
+            }
+
+            @Override
+            public void seen(String link) {
+                reportedSeen.add(link);
+            }
+        });
+
+        // Posted within two days, no "manager" in the title, not seen before
+        assertEquals(List.of("R-040002", "R-040005", "R-040006", "R-040009", "R-040010", "R-040013", "R-040014",
+                "R-040017", "R-040018"), requisitions(jobs));
+        assertEquals(List.copyOf(seen).stream().sorted().collect(Collectors.toList()),
+                reportedSeen.stream().sorted().collect(Collectors.toList()));
+        assertEquals(List.of(0, 20), searchBodies.stream()
+                .map(body -> body.get("offset").getAsInt())
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void sendsShortCountryParameterAsLocationFacet() throws Exception {
+        provider(careersUrl + "?a=" + ISRAEL + "&source=linkedin", false).fetchJobs();
+
+        assertEquals("{\"locationCountry\":[\"" + ISRAEL + "\"]}",
+                searchBodies.get(0).getAsJsonObject("appliedFacets").toString());
+    }
+
+    @Test
+    void keepsOnlyJobsWithMatchingDescriptions() throws Exception {
+        List<Job> jobs = provider(careersUrl, true).fetchJobs();
+
+        assertEquals(List.of("R-040000", "R-040005", "R-040017"), requisitions(jobs));
+        assertEquals(11, detailPaths.size());
+    }
+
+    private WorkdayJobsProvider provider(String url, boolean validateDescriptions) {
+        AppConfig config = new AppConfig.Builder()
+                .positions(List.of("software engineer"))
+                .levels(List.of("senior", "principal"))
+                .excludedPageTerms(List.of("sales"))
+                .excludedTitleTerms(List.of("manager"))
+                .build();
+        return new WorkdayJobsProvider("workday", url, new JobFilter(config), 2, validateDescriptions,
+                DescriptionCache.NONE, HttpCache.disabled(HttpClients.shared()));
+    }
+
+    private static SeenLinks seenLinks(Set<String> links) {
+        return new SeenLinks() {
+            @Override
+            public boolean contains(String link) {
+                return links.contains(link);
+            }
+
+            @Override
+            public int size() {
+                return links.size();
+            }
+        };
+    }
+
+    private static List<String> requisitions(List<Job> jobs) {
+        return jobs.stream()
+                .map(job -> job.getLink().substring(job.getLink().lastIndexOf('_') + 1))
+                .collect(Collectors.toList());
+    }
+
+    private static void respond(HttpExchange exchange, String fixture) throws IOException {
+        byte[] body;
+        try (InputStream in = WorkdayJobsProviderTest.class.getResourceAsStream("/workday/" + fixture)) {
+            body = in.readAllBytes();
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
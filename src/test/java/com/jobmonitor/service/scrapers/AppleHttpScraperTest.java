@@ -0,0 +1,123 @@
+package com.jobmonitor.service.scrapers;
+
+import com.jobmonitor.config.AppConfig;
+import com.jobmonitor.http.HttpCache;
+import com.jobmonitor.http.HttpClients;
+import com.jobmonitor.model.Job;
+import com.jobmonitor.service.JobFilter;
+import com.jobmonitor.service.JobsProvider;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Serves recorded jobs.apple.com search pages: the current layout with its data in a JSON.parse string literal,
+// a search without results and a changed layout that sends the scraper to the browser fallback
+class AppleHttpScraperTest {
+
+    private static final Job FALLBACK_JOB = new Job("https://jobs.apple.com/en-il/details/1", "From browser", "Apple");
+
+    private HttpServer server;
+    private String searchUrl;
+    private final Map<String, String> pages = new HashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger fallbackRuns = new AtomicInteger();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/en-il/search", exchange -> {
+            requests.incrementAndGet();
+            String query = exchange.getRequestURI().getQuery();
+            String page = query.substring(query.indexOf("page=") + "page=".length());
+
+            byte[] body;
+            try (InputStream in = AppleHttpScraperTest.class.getResourceAsStream(
+                    "/apple/" + pages.getOrDefault(page, "search-page-empty.html"))) {
+                body = in.readAllBytes();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        searchUrl = "http://127.0.0.1:" + server.getAddress().getPort() +
+                "/en-il/search?sort=newest&location=israel-ISR";
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void readsTeamJobsFromHydrationData() throws Exception {
+        pages.put("1", "search-page.html");
+
+        List<Job> jobs = scraper().fetchJobs();
+
+        // Escaped quotes inside the string literal survive both unquoting steps
+        assertEquals(List.of("Software Engineer, \"Siri\" Infrastructure", "Senior iOS Engineer"),
+                jobs.stream().map(Job::getTitle).collect(Collectors.toList()));
+        assertEquals("https://jobs.apple.com/en-il/details/200571234/software-engineer-siri-infrastructure?team=SFTWR",
+                jobs.get(0).getLink());
+        // The later pages are requested together once the first one had something new
+        assertEquals(3, requests.get());
+        assertEquals(0, fallbackRuns.get());
+    }
+
+    @Test
+    void emptySearchIsNotALayoutChange() throws Exception {
+        pages.put("1", "search-page-empty.html");
+
+        assertEquals(List.of(), scraper().fetchJobs());
+        assertEquals(0, fallbackRuns.get());
+    }
+
+    @Test
+    void changedLayoutFallsBackToBrowser() throws Exception {
+        pages.put("1", "search-page-changed.html");
+
+        assertEquals(List.of(FALLBACK_JOB), scraper().fetchJobs());
+        assertEquals(1, requests.get());
+        assertEquals(1, fallbackRuns.get());
+    }
+
+    private AppleHttpScraper scraper() {
+        AppConfig config = new AppConfig.Builder()
+                .positions(List.of("engineer"))
+                .levels(List.of("senior"))
+                .excludedPageTerms(List.of())
+                .excludedTitleTerms(List.of("manager"))
+                .build();
+
+        JobsProvider fallback = new JobsProvider() {
+            @Override
+            public String getName() {
+                return "apple";
+            }
+
+            @Override
+            public List<Job> fetchJobs() {
+                fallbackRuns.incrementAndGet();
+                return List.of(FALLBACK_JOB);
+            }
+        };
+        return new AppleHttpScraper(new JobFilter(config), fallback, HttpCache.disabled(HttpClients.shared()),
+                searchUrl);
+    }
+}
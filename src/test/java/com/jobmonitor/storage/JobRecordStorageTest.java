@@ -0,0 +1,137 @@
+package com.jobmonitor.storage;
+
+import com.jobmonitor.model.Job;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JobRecordStorageTest {
+
+    private static final long START = Instant.parse("2026-10-18T12:00:00Z").toEpochMilli();
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    @TempDir
+    Path directory;
+
+    private final TestClock clock = new TestClock(START);
+
+    @Test
+    void importsLegacyLinksOnceOnFirstStart() throws IOException {
+        Path legacy = directory.resolve("jobs.txt");
+        Files.write(legacy, List.of("https://a.com/1", "", "https://A.com/1", "https://a.com/2"));
+
+        JobRecordStorage storage = open(legacy, Long.MAX_VALUE);
+        Map<String, Long> stored = storedLinks(storage);
+        storage.close();
+
+        // Keyed by the key function, so the upper case duplicate is dropped; dated by the import, not the file
+        assertEquals(Map.of("https://a.com/1", START, "https://a.com/2", START), stored);
+        assertTrue(Files.exists(directory.resolve("jobs.log")));
+        assertFalse(Files.exists(directory.resolve("jobs.log.rewrite")));
+
+        Files.write(legacy, List.of("https://a.com/3"));
+        clock.advance(HOUR);
+        storage = open(legacy, Long.MAX_VALUE);
+        assertEquals(Set.of("https://a.com/1", "https://a.com/2"), storage.getStoredJobLinks());
+        storage.close();
+    }
+
+    @Test
+    void importCutShortByACrashIsRedone() throws IOException {
+        Path legacy = directory.resolve("jobs.txt");
+        Files.write(legacy, List.of("https://a.com/1", "https://a.com/2"));
+        // What a crash halfway through the first import leaves behind: a partly written file and no jobs.log
+        Files.write(directory.resolve("jobs.log.rewrite"), new byte[] {0, 0, 0, 40, 1, 2, 3});
+
+        JobRecordStorage storage = open(legacy, Long.MAX_VALUE);
+
+        assertEquals(Set.of("https://a.com/1", "https://a.com/2"), storage.getStoredJobLinks());
+        storage.close();
+    }
+
+    @Test
+    void rewriteKeepsTheLatestRecordOfEveryJob() throws IOException {
+        JobRecordStorage storage = open(directory.resolve("missing.txt"), 1);
+        List<Job> jobs = List.of(
+                new Job("https://a.com/1", "Backend Engineer", "snippet 1", "workday"),
+                new Job("https://a.com/2", "Frontend Engineer", "snippet 2", "apple"));
+        storage.saveJobs(jobs, List.of());
+        long oneRound = Files.size(directory.resolve("jobs.log"));
+
+        // Each round appends a newer record per job, after the second most of the log is superseded records
+        for (int round = 0; round < 2; round++) {
+            clock.advance(2 * HOUR);
+            storage.saveJobs(List.of(), jobs);
+        }
+        storage.close();
+
+        assertEquals(oneRound, Files.size(directory.resolve("jobs.log")));
+        storage = open(directory.resolve("missing.txt"), 1);
+        List<JobRecord> records = new ArrayList<>();
+        storage.forEachStoredJob(records::add);
+        storage.close();
+
+        records.sort((a, b) -> a.getLink().compareTo(b.getLink()));
+        assertEquals(List.of("Backend Engineer", "Frontend Engineer"),
+                records.stream().map(JobRecord::getTitle).toList());
+        for (JobRecord record : records) {
+            assertEquals(START, record.firstSeenMillis());
+            assertEquals(START + 4 * HOUR, record.lastSeenMillis());
+        }
+    }
+
+    private JobRecordStorage open(Path legacy, long compactionThresholdBytes) {
+        return new JobRecordStorage(directory.toString(), legacy.toString(), compactionThresholdBytes, 0,
+                link -> link.toLowerCase(), clock);
+    }
+
+    private static Map<String, Long> storedLinks(JobStorage storage) {
+        Map<String, Long> links = new HashMap<>();
+        storage.forEachStoredLink(links::put);
+        return links;
+    }
+
+    private static final class TestClock extends Clock {
+        private long millis;
+
+        TestClock(long millis) {
+            this.millis = millis;
+        }
+
+        void advance(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.jobmonitor.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LinkSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackWhatWasWritten() throws IOException {
+        Path path = directory.resolve("links.snapshot");
+        LinkSnapshot.write(path, List.of(
+                new StoredLink("https://a.com/1", 100),
+                new StoredLink("https://a.com/2", 200)).iterator());
+
+        List<StoredLink> links = LinkSnapshot.read(path);
+        assertEquals(2, links.size());
+        assertEquals("https://a.com/1", links.get(0).link);
+        assertEquals(100, links.get(0).firstSeenMillis);
+        assertEquals("https://a.com/2", links.get(1).link);
+        assertEquals(200, links.get(1).firstSeenMillis);
+        assertFalse(Files.exists(directory.resolve("links.snapshot.tmp")));
+    }
+
+    @Test
+    void snapshotWithABadChecksumIsRejected() throws IOException {
+        Path path = directory.resolve("links.snapshot");
+        LinkSnapshot.write(path, List.of(new StoredLink("https://a.com/1", 100)).iterator());
+
+        // Flip a byte of the link, past the magic and the length
+        byte[] content = Files.readAllBytes(path);
+        content[Integer.BYTES * 2] ^= 1;
+        Files.write(path, content);
+
+        IOException e = assertThrows(IOException.class, () -> LinkSnapshot.read(path));
+        assertTrue(e.getMessage().contains("checksum"), e.getMessage());
+    }
+
+    @Test
+    void truncatedSnapshotIsRejected() throws IOException {
+        Path path = directory.resolve("links.snapshot");
+        LinkSnapshot.write(path, List.of(new StoredLink("https://a.com/1", 100)).iterator());
+
+        byte[] content = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(content, content.length - 3));
+
+        assertThrows(IOException.class, () -> LinkSnapshot.read(path));
+    }
+
+    @Test
+    void missingSnapshotHoldsNoLinks() throws IOException {
+        assertTrue(LinkSnapshot.read(directory.resolve("links.snapshot")).isEmpty());
+    }
+}
@@ -0,0 +1,103 @@
+package com.jobmonitor.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogJobStorageTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void compactionMergesSnapshotAndLogWithoutLosingLinks() throws IOException {
+        // A one byte threshold compacts after every save; close() waits for the compaction
+        LogJobStorage storage = open(1);
+        storage.saveJobLinks(Set.of("https://a.com/1", "https://a.com/2"));
+        storage.close();
+        Map<String, Long> firstRound = storedLinks();
+
+        storage = open(1);
+        storage.saveJobLinks(Set.of("https://a.com/2", "https://a.com/3"));
+        storage.close();
+
+        List<StoredLink> snapshot = LinkSnapshot.read(directory.resolve("links.snapshot"));
+        assertEquals(List.of("https://a.com/1", "https://a.com/2", "https://a.com/3"),
+                snapshot.stream().map(link -> link.link).toList());
+        assertFalse(Files.exists(directory.resolve("links.log.compacting")));
+
+        // A link saved again keeps the time it was first seen
+        assertEquals(firstRound.get("https://a.com/2"), storedLinks().get("https://a.com/2"));
+    }
+
+    @Test
+    void interruptedCompactionIsFinishedOnOpen() throws IOException {
+        LogJobStorage storage = open(Long.MAX_VALUE);
+        storage.saveJobLinks(Set.of("https://a.com/1"));
+        storage.close();
+        storage = open(1);
+        storage.saveJobLinks(Set.of("https://a.com/2"));
+        storage.close();
+
+        // A crash right after the log was moved aside, before it was merged
+        storage = open(Long.MAX_VALUE);
+        storage.saveJobLinks(Set.of("https://a.com/3"));
+        storage.close();
+        Files.move(directory.resolve("links.log"), directory.resolve("links.log.compacting"));
+
+        storage = open(Long.MAX_VALUE);
+        assertFalse(Files.exists(directory.resolve("links.log.compacting")));
+        assertEquals(Set.of("https://a.com/1", "https://a.com/2", "https://a.com/3"), storage.getStoredJobLinks());
+        storage.close();
+    }
+
+    @Test
+    void tornLogTailKeepsEarlierLinks() throws IOException {
+        LogJobStorage storage = open(Long.MAX_VALUE);
+        storage.saveJobLinks(Set.of("https://a.com/1"));
+        storage.saveJobLinks(Set.of("https://a.com/2"));
+        storage.close();
+        Files.write(directory.resolve("links.log"), new byte[]{0, 0, 0, 40, 7}, StandardOpenOption.APPEND);
+
+        storage = open(Long.MAX_VALUE);
+        storage.saveJobLinks(Set.of("https://a.com/3"));
+        assertEquals(Set.of("https://a.com/1", "https://a.com/2", "https://a.com/3"), storage.getStoredJobLinks());
+        storage.close();
+    }
+
+    @Test
+    void importsTheLegacyFileOnFirstStart() throws IOException {
+        Path legacy = directory.resolve("jobs.txt");
+        Files.write(legacy, List.of("https://a.com/2", "", "https://a.com/1"));
+
+        LogJobStorage storage = new LogJobStorage(directory.toString(), legacy.toString(), Long.MAX_VALUE, 0);
+        assertEquals(Set.of("https://a.com/1", "https://a.com/2"), storage.getStoredJobLinks());
+        storage.close();
+        assertTrue(Files.exists(directory.resolve("links.snapshot")));
+    }
+
+    private LogJobStorage open(long compactionThresholdBytes) {
+        return new LogJobStorage(directory.toString(), directory.resolve("missing.txt").toString(),
+                compactionThresholdBytes, 0);
+    }
+
+    private Map<String, Long> storedLinks() {
+        LogJobStorage storage = open(Long.MAX_VALUE);
+        Map<String, Long> links = new HashMap<>();
+        storage.forEachStoredLink(links::put);
+        storage.close();
+        return links;
+    }
+}
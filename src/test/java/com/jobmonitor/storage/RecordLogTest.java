@@ -0,0 +1,103 @@
+package com.jobmonitor.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RecordLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void tornTailIsTruncatedOnOpen() throws IOException {
+        Path path = directory.resolve("test.log");
+        long intact = appendAndClose(path, "first", "second");
+
+        // A crash in the middle of an append: a full header but only part of the payload
+        byte[] torn = {0, 0, 0, 20, 1, 2, 3, 4, 'p', 'a', 'r'};
+        Files.write(path, torn, StandardOpenOption.APPEND);
+
+        try (RecordLog log = RecordLog.open(path)) {
+            assertEquals(intact, log.size());
+            assertEquals(intact, Files.size(path));
+            log.sync(log.append(List.of(bytes("third"))));
+        }
+        assertEquals(List.of("first", "second", "third"), readAll(path));
+    }
+
+    @Test
+    void garbageTailIsTruncatedOnOpen() throws IOException {
+        Path path = directory.resolve("test.log");
+        long intact = appendAndClose(path, "first", "second");
+
+        // A length no record can have
+        Files.write(path, new byte[]{(byte) 0xFF, (byte) 0xFF, 0x12, 0x34, 0, 0, 0, 0, 'x'}, StandardOpenOption.APPEND);
+
+        try (RecordLog log = RecordLog.open(path)) {
+            assertEquals(intact, log.size());
+        }
+        assertEquals(List.of("first", "second"), readAll(path));
+    }
+
+    @Test
+    void checksumMismatchStopsReplay() throws IOException {
+        Path path = directory.resolve("test.log");
+        appendAndClose(path, "first", "second", "third");
+
+        // Flip a payload byte of the second record, the third one is intact but must not be replayed past it
+        byte[] content = Files.readAllBytes(path);
+        int secondPayload = (int) RecordLog.recordSize(bytes("first")) + 8;
+        content[secondPayload] ^= 1;
+        Files.write(path, content);
+
+        assertEquals(List.of("first"), readAll(path));
+        try (RecordLog log = RecordLog.open(path)) {
+            assertEquals(RecordLog.recordSize(bytes("first")), log.size());
+        }
+    }
+
+    @Test
+    void readAtReturnsTheRecordAtAnAppendPosition() throws IOException {
+        Path path = directory.resolve("test.log");
+        try (RecordLog log = RecordLog.open(path)) {
+            long second = log.append(List.of(bytes("first")));
+            log.append(List.of(bytes("second"), bytes("third")));
+
+            assertArrayEquals(bytes("first"), log.readAt(0));
+            assertArrayEquals(bytes("second"), log.readAt(second));
+        }
+    }
+
+    private static long appendAndClose(Path path, String... records) throws IOException {
+        List<byte[]> encoded = new ArrayList<>();
+        for (String record : records) {
+            encoded.add(bytes(record));
+        }
+        try (RecordLog log = RecordLog.open(path)) {
+            long end = log.append(encoded);
+            log.sync(end);
+            return end;
+        }
+    }
+
+    private static List<String> readAll(Path path) throws IOException {
+        List<String> records = new ArrayList<>();
+        RecordLog.read(path, record -> records.add(new String(record, StandardCharsets.UTF_8)));
+        return records;
+    }
+
+    private static byte[] bytes(String record) {
+        return record.getBytes(StandardCharsets.UTF_8);
+    }
+}